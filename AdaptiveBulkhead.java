@@ -0,0 +1,117 @@
+package com.conference.api.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Cloison à concurrence limitée et file d'attente bornée.
+// La limite s'adapte à la latence observée : hausse additive tant que la latence reste
+// sous la cible, baisse multiplicative dès qu'elle la dépasse, au plus une fois par intervalle
+// pour qu'une rafale de requêtes lentes ne compte que pour un seul signal de congestion.
+public class AdaptiveBulkhead {
+
+    private final int minLimite;
+    private final int maxLimite;
+    private final int maxFile;
+    private final long attenteMaxNanos;
+    private final long latenceCibleNanos;
+    private final long intervalleBaisseNanos;
+
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition libere = verrou.newCondition();
+    private double limite;
+    private int enCours;
+    private int enAttente;
+    private long rejets;
+    private long derniereBaisse;
+
+    public AdaptiveBulkhead(AdmissionProperties.Bulkhead parametres) {
+        this.minLimite = Math.max(1, parametres.getMinConcurrency());
+        this.maxLimite = Math.max(minLimite, parametres.getMaxConcurrency());
+        this.maxFile = parametres.getMaxQueue();
+        this.attenteMaxNanos = TimeUnit.MILLISECONDS.toNanos(parametres.getMaxWaitMillis());
+        this.latenceCibleNanos = TimeUnit.MILLISECONDS.toNanos(parametres.getTargetLatencyMillis());
+        this.intervalleBaisseNanos = TimeUnit.MILLISECONDS.toNanos(parametres.getDecreaseIntervalMillis());
+        this.limite = maxLimite;
+        this.derniereBaisse = System.nanoTime() - intervalleBaisseNanos;
+    }
+
+    // Obtenir une place, en attendant au plus le délai configuré ; false si la requête doit être rejetée
+    public boolean acquire() throws InterruptedException {
+        verrou.lock();
+        try {
+            if (enCours < (int) limite) {
+                enCours++;
+                return true;
+            }
+            if (enAttente >= maxFile) {
+                rejets++;
+                return false;
+            }
+            enAttente++;
+            try {
+                long restant = attenteMaxNanos;
+                while (enCours >= (int) limite) {
+                    if (restant <= 0) {
+                        rejets++;
+                        return false;
+                    }
+                    restant = libere.awaitNanos(restant);
+                }
+                enCours++;
+                return true;
+            } finally {
+                enAttente--;
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // Libérer la place et ajuster la limite selon la latence de la requête
+    public void release(long latenceNanos) {
+        verrou.lock();
+        try {
+            enCours--;
+            if (latenceNanos > latenceCibleNanos) {
+                long maintenant = System.nanoTime();
+                if (maintenant - derniereBaisse >= intervalleBaisseNanos) {
+                    limite = Math.max(minLimite, limite * 0.9);
+                    derniereBaisse = maintenant;
+                }
+            } else {
+                limite = Math.min(maxLimite, limite + 1.0 / limite);
+            }
+            libere.signal();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public int getLimite() {
+        verrou.lock();
+        try {
+            return (int) limite;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public int getEnCours() {
+        verrou.lock();
+        try {
+            return enCours;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public long getRejets() {
+        verrou.lock();
+        try {
+            return rejets;
+        } finally {
+            verrou.unlock();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.conference.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Limite adaptative : baisse multiplicative au plus une fois par intervalle, hausse additive sous la
+// latence cible ; au-delà de la file ou du délai d'attente, la requête est rejetée
+class AdaptiveBulkheadTest {
+
+    private static final long LENTE = TimeUnit.SECONDS.toNanos(1);
+    private static final long RAPIDE = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void rafaleLenteNeBaisseLaLimiteQuUneFoisParIntervalle() throws InterruptedException {
+        AdaptiveBulkhead cloison = cloison(10, 4, 60_000L);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(cloison.acquire()).isTrue();
+            cloison.release(LENTE);
+        }
+
+        assertThat(cloison.getLimite()).isEqualTo(9);
+    }
+
+    @Test
+    void latencesSousLaCibleRemontentLaLimiteJusquAuMaximum() throws InterruptedException {
+        AdaptiveBulkhead cloison = cloison(10, 4, 60_000L);
+        assertThat(cloison.acquire()).isTrue();
+        cloison.release(LENTE);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(cloison.acquire()).isTrue();
+            cloison.release(RAPIDE);
+        }
+
+        assertThat(cloison.getLimite()).isEqualTo(10);
+    }
+
+    @Test
+    void filePleineRejeteSansAttendre() throws InterruptedException {
+        AdaptiveBulkhead cloison = cloison(1, 0, 60_000L);
+        assertThat(cloison.acquire()).isTrue();
+
+        assertThat(cloison.acquire()).isFalse();
+        assertThat(cloison.getRejets()).isEqualTo(1);
+        assertThat(cloison.getEnCours()).isEqualTo(1);
+    }
+
+    @Test
+    void requeteEnAttenteAdmiseALaLiberation() throws Exception {
+        AdaptiveBulkhead cloison = cloison(1, 1, 60_000L);
+        assertThat(cloison.acquire()).isTrue();
+
+        CompletableFuture<Boolean> enAttente = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cloison.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        Thread.sleep(50);
+        cloison.release(RAPIDE);
+
+        assertThat(enAttente.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cloison.getEnCours()).isEqualTo(1);
+    }
+
+    private static AdaptiveBulkhead cloison(int maxConcurrence, int maxFile, long intervalleBaisseMillis) {
+        AdmissionProperties.Bulkhead parametres = new AdmissionProperties.Bulkhead(1, maxConcurrence, maxFile, 5_000L);
+        parametres.setTargetLatencyMillis(250L);
+        parametres.setDecreaseIntervalMillis(intervalleBaisseMillis);
+        return new AdaptiveBulkhead(parametres);
+    }
+}
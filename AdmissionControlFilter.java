@@ -0,0 +1,86 @@
+package com.conference.api.config;
+
+import com.conference.api.config.AdmissionProperties.EndpointClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Contrôle d'admission placé avant la sécurité : chaque classe de points d'accès dispose de sa
+// propre cloison, de sorte que les dépôts de soumissions ne puissent pas affamer les évaluateurs
+// ni les lectures. Les requêtes en excès sont rejetées immédiatement (503 + Retry-After).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionProperties properties;
+    private final Map<EndpointClass, AdaptiveBulkhead> cloisons = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(AdmissionProperties properties) {
+        this.properties = properties;
+        for (EndpointClass classe : EndpointClass.values()) {
+            cloisons.put(classe, new AdaptiveBulkhead(properties.getBulkhead(classe)));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveBulkhead cloison = cloisons.get(classer(request));
+        if (cloison == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean admis;
+        try {
+            admis = cloison.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admis = false;
+        }
+        if (!admis) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service momentanément saturé");
+            return;
+        }
+        long debut = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            cloison.release(System.nanoTime() - debut);
+        }
+    }
+
+    public AdaptiveBulkhead getBulkhead(EndpointClass classe) {
+        return cloisons.get(classe);
+    }
+
+    static EndpointClass classer(HttpServletRequest request) {
+        String methode = request.getMethod();
+        if ("GET".equals(methode) || "HEAD".equals(methode) || "OPTIONS".equals(methode)) {
+            return EndpointClass.LECTURE;
+        }
+        String chemin = request.getRequestURI();
+        if (chemin.contains("/soumissions")) {
+            return EndpointClass.SOUMISSION;
+        }
+        if (chemin.contains("/evaluations")) {
+            return EndpointClass.EVALUATION;
+        }
+        return EndpointClass.GESTION;
+    }
+}
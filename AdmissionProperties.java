@@ -0,0 +1,85 @@
+package com.conference.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Paramètres du contrôle d'admission (préfixe app.admission)
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("app.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    // Délai suggéré aux clients rejetés (en-tête Retry-After)
+    private int retryAfterSeconds = 2;
+
+    // Valeurs par défaut de chaque cloison, complétées champ par champ par la configuration
+    private static final Map<EndpointClass, Bulkhead> DEFAUTS = new EnumMap<>(Map.of(
+            EndpointClass.SOUMISSION, new Bulkhead(4, 32, 64, 500L),
+            EndpointClass.EVALUATION, new Bulkhead(4, 16, 32, 500L),
+            EndpointClass.LECTURE, new Bulkhead(8, 64, 128, 200L),
+            EndpointClass.GESTION, new Bulkhead(2, 8, 16, 500L)));
+
+    // Surcharges par classe de points d'accès ; un champ absent garde sa valeur par défaut
+    private Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    // Part de la limite courante de la cloison SOUMISSION accordée à une seule conférence,
+    // et plafonds absolus spécifiques éventuels (eux-mêmes bornés par cette limite)
+    private double conferenceShare = 0.5;
+    private Map<Integer, Integer> conferenceLimits = new HashMap<>();
+
+    // Paramètres effectifs d'une classe
+    public Bulkhead getBulkhead(EndpointClass classe) {
+        return DEFAUTS.get(classe).completer(bulkheads.get(classe));
+    }
+
+    public enum EndpointClass { SOUMISSION, EVALUATION, LECTURE, GESTION }
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        private Integer minConcurrency;
+        private Integer maxConcurrency;
+        private Integer maxQueue;
+        private Long maxWaitMillis;
+        // Latence au-delà de laquelle la limite adaptative diminue
+        private Long targetLatencyMillis;
+        // Intervalle minimal entre deux baisses de la limite
+        private Long decreaseIntervalMillis;
+
+        public Bulkhead() {
+        }
+
+        public Bulkhead(Integer minConcurrency, Integer maxConcurrency, Integer maxQueue, Long maxWaitMillis) {
+            this.minConcurrency = minConcurrency;
+            this.maxConcurrency = maxConcurrency;
+            this.maxQueue = maxQueue;
+            this.maxWaitMillis = maxWaitMillis;
+            this.targetLatencyMillis = 250L;
+            this.decreaseIntervalMillis = 1000L;
+        }
+
+        // Copie dont les champs renseignés dans la surcharge remplacent ceux-ci
+        Bulkhead completer(Bulkhead surcharge) {
+            if (surcharge == null) {
+                return this;
+            }
+            Bulkhead effectif = new Bulkhead(
+                    surcharge.minConcurrency != null ? surcharge.minConcurrency : minConcurrency,
+                    surcharge.maxConcurrency != null ? surcharge.maxConcurrency : maxConcurrency,
+                    surcharge.maxQueue != null ? surcharge.maxQueue : maxQueue,
+                    surcharge.maxWaitMillis != null ? surcharge.maxWaitMillis : maxWaitMillis);
+            effectif.targetLatencyMillis = surcharge.targetLatencyMillis != null ? surcharge.targetLatencyMillis : targetLatencyMillis;
+            effectif.decreaseIntervalMillis = surcharge.decreaseIntervalMillis != null ? surcharge.decreaseIntervalMillis : decreaseIntervalMillis;
+            return effectif;
+        }
+    }
+}
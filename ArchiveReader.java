@@ -0,0 +1,104 @@
+package com.conference.api.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Lecture d'une archive colonnaire mappée en mémoire. Les lots sont décodés un par un ;
+// un filtre sur une colonne permet de ne décoder les autres colonnes que si le lot contient une correspondance.
+public class ArchiveReader implements Closeable {
+
+    private record Lot(ArchiveTable table, long position, int longueur, int lignes) {
+    }
+
+    private final FileChannel canal;
+    private final MappedByteBuffer fichier;
+    private final List<Lot> lots = new ArrayList<>();
+
+    public ArchiveReader(Path chemin) throws IOException {
+        canal = FileChannel.open(chemin, StandardOpenOption.READ);
+        long taille = canal.size();
+        if (taille > Integer.MAX_VALUE) {
+            canal.close();
+            throw new IOException("Archive trop volumineuse pour être mappée : " + chemin);
+        }
+        fichier = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+        if (fichier.getLong(0) != ArchiveWriter.MAGIE || fichier.getLong((int) taille - Long.BYTES) != ArchiveWriter.MAGIE) {
+            canal.close();
+            throw new IOException("Archive invalide ou incomplète : " + chemin);
+        }
+        ByteBuffer index = fichier.duplicate().position((int) fichier.getLong((int) taille - 2 * Long.BYTES));
+        int nombre = index.getInt();
+        for (int i = 0; i < nombre; i++) {
+            lots.add(new Lot(ArchiveTable.values()[index.get()], index.getLong(), index.getInt(), index.getInt()));
+        }
+    }
+
+    // Parcourir toutes les lignes d'une table
+    public void forEach(ArchiveTable table, Consumer<Object[]> consommateur) {
+        forEachWhere(table, -1, valeur -> true, consommateur);
+    }
+
+    // Parcourir les lignes d'une table dont la colonne donnée satisfait le filtre
+    public void forEachWhere(ArchiveTable table, int colonne, Predicate<Object> filtre, Consumer<Object[]> consommateur) {
+        List<ArchiveTable.ColumnType> types = table.getColonnes();
+        for (Lot lot : lots) {
+            if (lot.table() != table) {
+                continue;
+            }
+            ByteBuffer[] blocs = new ByteBuffer[types.size()];
+            int[] longueursBrutes = new int[types.size()];
+            ByteBuffer source = fichier.slice((int) lot.position(), lot.longueur());
+            source.getInt();
+            for (int c = 0; c < types.size(); c++) {
+                longueursBrutes[c] = source.getInt();
+                int compresse = source.getInt();
+                blocs[c] = source.slice(source.position(), compresse);
+                source.position(source.position() + compresse);
+            }
+
+            Object[][] colonnes = new Object[types.size()][];
+            if (colonne >= 0) {
+                colonnes[colonne] = ColumnCodec.decode(types.get(colonne), blocs[colonne], longueursBrutes[colonne], lot.lignes());
+                boolean correspondance = false;
+                for (Object valeur : colonnes[colonne]) {
+                    if (filtre.test(valeur)) {
+                        correspondance = true;
+                        break;
+                    }
+                }
+                if (!correspondance) {
+                    continue;
+                }
+            }
+            for (int c = 0; c < types.size(); c++) {
+                if (colonnes[c] == null) {
+                    colonnes[c] = ColumnCodec.decode(types.get(c), blocs[c], longueursBrutes[c], lot.lignes());
+                }
+            }
+            for (int ligne = 0; ligne < lot.lignes(); ligne++) {
+                if (colonne >= 0 && !filtre.test(colonnes[colonne][ligne])) {
+                    continue;
+                }
+                Object[] valeurs = new Object[types.size()];
+                for (int c = 0; c < types.size(); c++) {
+                    valeurs[c] = colonnes[c][ligne];
+                }
+                consommateur.accept(valeurs);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,563 @@
+package com.conference.api.services;
+
+import com.conference.api.archive.ArchiveReader;
+import com.conference.api.archive.ArchiveTable;
+import com.conference.api.archive.ArchiveWriter;
+import com.conference.api.config.ReadWriteRoutingDataSource;
+import com.conference.api.config.ShardRouter;
+import com.conference.api.entities.Conference;
+import com.conference.api.entities.ConferenceEtat;
+import com.conference.api.entities.Evaluation;
+import com.conference.api.entities.EvaluationEtat;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
+import com.conference.api.entities.Role;
+import com.conference.api.entities.Soumission;
+import com.conference.api.entities.SoumissionEtat;
+import com.conference.api.entities.UserRole;
+import com.conference.api.entities.Utilisateur;
+import com.conference.api.exceptions.ResourceNotFoundException;
+import com.conference.api.repositories.ConferenceRepository;
+import com.conference.api.repositories.EvaluationRepository;
+import com.conference.api.repositories.SoumissionRepository;
+import com.conference.api.repositories.UserRoleRepository;
+import com.conference.api.repositories.UtilisateurRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.AttributeMapping;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Archivage des conférences fermées : le graphe (soumissions, évaluations, rôles) est exporté
+// en flux vers un fichier colonnaire compressé, puis retiré des tables actives. Les lectures
+// sont ensuite servies depuis l'archive, ouverte à la demande et mappée en mémoire.
+// La conférence est gelée par un marqueur persisté avant l'export (les chemins d'écriture le
+// vérifient) ; seules les lignes relues dans l'archive sont purgées. Ce marqueur, et non la présence
+// du fichier, indique si la conférence est archivée : ARCHIVAGE (export) puis PURGE puis ARCHIVEE.
+// Une restauration réinsère les lignes avec leurs identifiants d'origine ; ces lignes, validées dans
+// la transaction du réimport, attestent à elles seules qu'il a abouti.
+@Service
+public class ArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveService.class);
+
+    private final ConferenceRepository conferenceRepository;
+    private final SoumissionRepository soumissionRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final ShardRouter shardRouter;
+    private final PendingOperationService pendingOperations;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ecriture;
+    private final Path repertoire;
+    private final int tailleLot;
+    private final Map<Integer, ArchiveReader> lecteurs = new ConcurrentHashMap<>();
+
+    public ArchiveService(ConferenceRepository conferenceRepository,
+                          SoumissionRepository soumissionRepository,
+                          EvaluationRepository evaluationRepository,
+                          UserRoleRepository userRoleRepository,
+                          UtilisateurRepository utilisateurRepository,
+                          CascadeDeleteService cascadeDeleteService,
+                          ShardRouter shardRouter,
+                          PendingOperationService pendingOperations,
+                          EntityManager entityManager,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.archive.directory:archives}") String repertoire,
+                          @Value("${app.archive.rows-per-group:4096}") int tailleLot) {
+        this.conferenceRepository = conferenceRepository;
+        this.soumissionRepository = soumissionRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.shardRouter = shardRouter;
+        this.pendingOperations = pendingOperations;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ecriture = new TransactionTemplate(transactionManager);
+        this.repertoire = Path.of(repertoire);
+        this.tailleLot = tailleLot;
+    }
+
+    // Lecture fraîche du marqueur : archive écrite (purge en cours), archivée, ou restauration non terminée
+    public boolean isArchived(int conferenceId) {
+        return pendingOperations.lire(Cible.CONFERENCE, conferenceId)
+                .filter(type -> type == Type.PURGE || type == Type.ARCHIVEE || type == Type.RESTAURATION)
+                .isPresent();
+    }
+
+    // Archiver une conférence fermée puis retirer son graphe des tables actives de sa partition.
+    // Si la purge échoue, la conférence reste gelée et la purge reprend au démarrage suivant.
+    public DeletionProgress archiveConference(int conferenceId) {
+        if (isArchived(conferenceId)) {
+            throw new IllegalArgumentException("La conférence " + conferenceId + " est déjà archivée.");
+        }
+        // Geler la conférence : toute écriture sous elle est refusée tant que le marqueur existe
+        pendingOperations.acquerir(Cible.CONFERENCE, conferenceId, Type.ARCHIVAGE);
+        return shardRouter.onEntity(conferenceId, () -> {
+            Path temporaire = repertoire.resolve("conference-" + conferenceId + ".arc.tmp");
+            try {
+                Files.createDirectories(repertoire);
+                long[] exportees;
+                try (ArchiveWriter writer = new ArchiveWriter(temporaire, tailleLot)) {
+                    // Transaction en écriture : lue sur la base principale, jamais sur un réplica en retard
+                    exportees = ecriture.execute(status -> exporter(conferenceId, writer));
+                }
+                verifierInchangee(conferenceId, exportees);
+                Files.move(temporaire, fichier(conferenceId), StandardCopyOption.ATOMIC_MOVE);
+                // Dès ce point, les lectures sont servies par l'archive
+                if (!pendingOperations.changer(Cible.CONFERENCE, conferenceId, Type.ARCHIVAGE, Type.PURGE)) {
+                    throw new IllegalStateException("Marqueur d'archivage perdu pour la conférence " + conferenceId);
+                }
+            } catch (IOException | RuntimeException e) {
+                supprimerSiPresent(temporaire);
+                supprimerSiPresent(fichier(conferenceId));
+                pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.ARCHIVAGE);
+                if (e instanceof IOException io) {
+                    throw new UncheckedIOException("Échec de l'archivage de la conférence " + conferenceId, io);
+                }
+                throw (RuntimeException) e;
+            }
+            return purger(conferenceId);
+        });
+    }
+
+    // Réintégrer une conférence archivée dans les tables actives, en une transaction
+    public void restoreConference(int conferenceId) {
+        shardRouter.onEntity(conferenceId, () -> {
+            if (!pendingOperations.changer(Cible.CONFERENCE, conferenceId, Type.ARCHIVEE, Type.RESTAURATION)) {
+                if (isArchived(conferenceId)) {
+                    throw new IllegalArgumentException("La conférence " + conferenceId + " est en cours d'archivage ou de restauration.");
+                }
+                throw new ResourceNotFoundException("Aucune archive pour la conférence " + conferenceId);
+            }
+            try {
+                ArchiveReader reader = lecteur(conferenceId);
+                // Un réimport déjà validé (reprise après une panne) n'est jamais rejoué
+                ecriture.executeWithoutResult(status -> {
+                    if (!restaurationValidee(conferenceId)) {
+                        importer(conferenceId, reader);
+                    }
+                });
+            } catch (RuntimeException e) {
+                pendingOperations.changer(Cible.CONFERENCE, conferenceId, Type.RESTAURATION, Type.ARCHIVEE);
+                throw e;
+            }
+            terminerRestauration(conferenceId);
+        });
+    }
+
+    // Les lignes d'une conférence archivée ont été purgées et toute écriture sous elle est refusée :
+    // des lignes actives ne peuvent provenir que d'un réimport validé
+    private boolean restaurationValidee(int conferenceId) {
+        return soumissionRepository.countByConferenceId(conferenceId) > 0
+                || userRoleRepository.countByConferenceIdAndRoleNot(conferenceId, Role.EDITEUR) > 0;
+    }
+
+    // Le fichier n'est supprimé qu'après le commit du réimport, puis le marqueur est retiré
+    private void terminerRestauration(int conferenceId) {
+        fermer(conferenceId);
+        try {
+            Files.deleteIfExists(fichier(conferenceId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.RESTAURATION);
+    }
+
+    // Reprendre les archivages et restaurations interrompus (redémarrage, panne)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendre() {
+        ReadWriteRoutingDataSource.isoler(this::reprendreOperations).run();
+    }
+
+    private void reprendreOperations() {
+        for (int conferenceId : pendingOperations.enCours(Cible.CONFERENCE, Type.ARCHIVAGE)) {
+            // Export inachevé : les tables actives sont intactes, un fichier éventuel est abandonné
+            supprimerSiPresent(repertoire.resolve("conference-" + conferenceId + ".arc.tmp"));
+            supprimerSiPresent(fichier(conferenceId));
+            pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.ARCHIVAGE);
+        }
+        for (int conferenceId : pendingOperations.enCours(Cible.CONFERENCE, Type.PURGE)) {
+            // Archive complète : seule la purge restait à faire
+            try {
+                shardRouter.onEntity(conferenceId, () -> purger(conferenceId));
+            } catch (RuntimeException e) {
+                log.error("Reprise de l'archivage de la conférence {} impossible", conferenceId, e);
+            }
+        }
+        for (int conferenceId : pendingOperations.enCours(Cible.CONFERENCE, Type.RESTAURATION)) {
+            try {
+                shardRouter.onEntity(conferenceId, () -> reprendreRestauration(conferenceId));
+            } catch (RuntimeException e) {
+                log.error("Reprise de la restauration de la conférence {} impossible", conferenceId, e);
+            }
+        }
+    }
+
+    // Réimport validé : terminer ; sinon l'archive fait toujours foi. Le fichier n'est supprimé
+    // qu'après le commit du réimport : son absence signale donc aussi un réimport validé.
+    private void reprendreRestauration(int conferenceId) {
+        if (Boolean.TRUE.equals(ecriture.execute(status -> restaurationValidee(conferenceId)))
+                || !Files.exists(fichier(conferenceId))) {
+            terminerRestauration(conferenceId);
+        } else {
+            pendingOperations.changer(Cible.CONFERENCE, conferenceId, Type.RESTAURATION, Type.ARCHIVEE);
+        }
+    }
+
+    // Soumissions d'une conférence archivée
+    public List<Soumission> getSoumissions(int conferenceId) {
+        List<Object[]> lignes = new ArrayList<>();
+        lecteur(conferenceId).forEach(ArchiveTable.SOUMISSION, lignes::add);
+        return shardRouter.onEntity(conferenceId, () -> versSoumissions(conferenceId, lignes));
+    }
+
+    // Soumissions d'une conférence archivée dans un état donné
+    public List<Soumission> getSoumissionsByEtat(int conferenceId, SoumissionEtat etat) {
+        List<Object[]> lignes = new ArrayList<>();
+        lecteur(conferenceId).forEachWhere(ArchiveTable.SOUMISSION, 3, etat.name()::equals, lignes::add);
+        return shardRouter.onEntity(conferenceId, () -> versSoumissions(conferenceId, lignes));
+    }
+
+    // Évaluations d'une conférence archivée
+    public List<Evaluation> getEvaluations(int conferenceId) {
+        List<Object[]> lignes = new ArrayList<>();
+        lecteur(conferenceId).forEach(ArchiveTable.EVALUATION, lignes::add);
+        Map<Integer, Soumission> soumissions = getSoumissions(conferenceId).stream()
+                .collect(Collectors.toMap(Soumission::getId, Function.identity()));
+        Map<Integer, Utilisateur> utilisateurs = utilisateurs(lignes.stream().map(ligne -> (Integer) ligne[2]));
+        List<Evaluation> evaluations = new ArrayList<>(lignes.size());
+        for (Object[] ligne : lignes) {
+            Evaluation evaluation = new Evaluation();
+            evaluation.setId((Integer) ligne[0]);
+            evaluation.setSoumission(soumissions.get((Integer) ligne[1]));
+            evaluation.setEvaluateur(utilisateurs.get((Integer) ligne[2]));
+            evaluation.setNote((Integer) ligne[3]);
+            evaluation.setCommentaires((String) ligne[4]);
+            evaluation.setEtat(ligne[5] == null ? null : EvaluationEtat.valueOf((String) ligne[5]));
+            evaluation.setDateEvaluation(ligne[6] == null ? null : new Date((Long) ligne[6]));
+            evaluations.add(evaluation);
+        }
+        return evaluations;
+    }
+
+    // Exporter le graphe ; renvoie le nombre de soumissions, d'évaluations et de rôles écrits
+    private long[] exporter(int conferenceId, ArchiveWriter writer) {
+        Conference conference = conferenceRepository.findById(conferenceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conférence introuvable avec l'ID : " + conferenceId));
+        if (conference.getEtat() != ConferenceEtat.FERMEE) {
+            throw new IllegalArgumentException("Seules les conférences fermées peuvent être archivées.");
+        }
+        long[] exportees = new long[3];
+        try {
+            writer.write(ArchiveTable.CONFERENCE, conference.getId(), conference.getTitre(), conference.getThematique(),
+                    conference.getDateDebut().toEpochDay(), conference.getDateFin().toEpochDay(),
+                    conference.getEtat().name(), conference.getCreateur() == null ? null : conference.getCreateur().getId());
+
+            int compteur = 0;
+            try (Stream<Soumission> soumissions = soumissionRepository.streamByConferenceId(conference.getId())) {
+                for (Soumission s : (Iterable<Soumission>) soumissions::iterator) {
+                    writer.write(ArchiveTable.SOUMISSION, s.getId(), s.getTitreArticle(), s.getResume(),
+                            s.getEtat() == null ? null : s.getEtat().name(),
+                            s.getDateSoumission() == null ? null : s.getDateSoumission().getTime(),
+                            s.getDocumentPdf(), s.getAuteur().getId(), ids(s.getCoAuteurs()), ids(s.getEvaluateurs()));
+                    exportees[0]++;
+                    compteur = liberer(compteur);
+                }
+            }
+            try (Stream<Evaluation> evaluations = evaluationRepository.streamByConferenceId(conference.getId())) {
+                for (Evaluation e : (Iterable<Evaluation>) evaluations::iterator) {
+                    writer.write(ArchiveTable.EVALUATION, e.getId(), e.getSoumission().getId(), e.getEvaluateur().getId(),
+                            e.getNote(), e.getCommentaires(), e.getEtat() == null ? null : e.getEtat().name(),
+                            e.getDateEvaluation() == null ? null : e.getDateEvaluation().getTime());
+                    exportees[1]++;
+                    compteur = liberer(compteur);
+                }
+            }
+            try (Stream<UserRole> roles = userRoleRepository.streamByConferenceIdAndRoleNot(conference.getId(), Role.EDITEUR)) {
+                for (UserRole ur : (Iterable<UserRole>) roles::iterator) {
+                    writer.write(ArchiveTable.USER_ROLE, ur.getId(), ur.getUtilisateur().getId(), ur.getRole().name());
+                    exportees[2]++;
+                    compteur = liberer(compteur);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return exportees;
+    }
+
+    // Une écriture validée avant la pose du marqueur a pu échapper à l'export : l'archive est alors abandonnée
+    private void verifierInchangee(int conferenceId, long[] exportees) {
+        long[] actuelles = ecriture.execute(status -> new long[] {
+                soumissionRepository.countByConferenceId(conferenceId),
+                evaluationRepository.countByConferenceId(conferenceId),
+                userRoleRepository.countByConferenceIdAndRoleNot(conferenceId, Role.EDITEUR)});
+        if (!Arrays.equals(exportees, actuelles)) {
+            throw new IllegalStateException("La conférence " + conferenceId
+                    + " a été modifiée pendant son archivage ; veuillez réessayer.");
+        }
+    }
+
+    // Purger exactement les lignes relues dans l'archive, puis marquer la conférence comme archivée
+    private DeletionProgress purger(int conferenceId) {
+        ArchiveReader reader = lecteur(conferenceId);
+        List<Integer> evaluationIds = new ArrayList<>();
+        reader.forEach(ArchiveTable.EVALUATION, ligne -> evaluationIds.add((Integer) ligne[0]));
+        List<Integer> soumissionIds = new ArrayList<>();
+        reader.forEach(ArchiveTable.SOUMISSION, ligne -> soumissionIds.add((Integer) ligne[0]));
+        List<Long> roleIds = new ArrayList<>();
+        reader.forEach(ArchiveTable.USER_ROLE, ligne -> roleIds.add((Long) ligne[0]));
+
+        DeletionProgress progress = cascadeDeleteService.purgeArchivedConference(
+                conferenceId, evaluationIds, soumissionIds, roleIds);
+        pendingOperations.changer(Cible.CONFERENCE, conferenceId, Type.PURGE, Type.ARCHIVEE);
+        return progress;
+    }
+
+    private static void supprimerSiPresent(Path chemin) {
+        try {
+            Files.deleteIfExists(chemin);
+        } catch (IOException e) {
+            log.warn("Fichier temporaire d'archive non supprimé : {}", chemin, e);
+        }
+    }
+
+    // Réinsérer le graphe avec ses identifiants d'origine, par lots JDBC
+    private void importer(int conferenceId, ArchiveReader reader) {
+        Reinsertion soumissions = new Reinsertion(Soumission.class,
+                "titreArticle", "resume", "etat", "dateSoumission", "documentPdf", "auteur", "conference");
+        Jointure coAuteurs = new Jointure(Soumission.class, "coAuteurs");
+        Jointure evaluateurs = new Jointure(Soumission.class, "evaluateurs");
+        Reinsertion evaluations = new Reinsertion(Evaluation.class,
+                "soumission", "evaluateur", "note", "commentaires", "etat", "dateEvaluation");
+        Reinsertion roles = new Reinsertion(UserRole.class, "utilisateur", "role", "conference");
+
+        parLots(reader, ArchiveTable.SOUMISSION, ligne -> {
+            soumissions.ajouter(ligne[0], ligne[1], ligne[2],
+                    ligne[3] == null ? null : SoumissionEtat.valueOf((String) ligne[3]),
+                    ligne[4] == null ? null : new Date((Long) ligne[4]), ligne[5], ligne[6], conferenceId);
+            coAuteurs.ajouter((Integer) ligne[0], liste(ligne[7]));
+            evaluateurs.ajouter((Integer) ligne[0], liste(ligne[8]));
+        }, () -> {
+            soumissions.executer();
+            coAuteurs.executer();
+            evaluateurs.executer();
+        });
+        parLots(reader, ArchiveTable.EVALUATION, ligne -> evaluations.ajouter(ligne[0], ligne[1], ligne[2], ligne[3], ligne[4],
+                ligne[5] == null ? null : EvaluationEtat.valueOf((String) ligne[5]),
+                ligne[6] == null ? null : new Date((Long) ligne[6])), evaluations::executer);
+        parLots(reader, ArchiveTable.USER_ROLE, ligne -> roles.ajouter(ligne[0], ligne[1],
+                Role.valueOf((String) ligne[2]), conferenceId), roles::executer);
+    }
+
+    // Parcourir une table de l'archive en écrivant un lot toutes les tailleLot lignes, puis le reliquat
+    private void parLots(ArchiveReader reader, ArchiveTable table, Consumer<Object[]> ajout, Runnable ecrire) {
+        int[] lignes = new int[1];
+        reader.forEach(table, ligne -> {
+            ajout.accept(ligne);
+            if (++lignes[0] % tailleLot == 0) {
+                ecrire.run();
+            }
+        });
+        ecrire.run();
+    }
+
+    private int liberer(int compteur) {
+        if (++compteur % tailleLot == 0) {
+            entityManager.clear();
+        }
+        return compteur;
+    }
+
+    private List<Soumission> versSoumissions(int conferenceId, List<Object[]> lignes) {
+        Conference conference = conferenceRepository.findById(conferenceId).orElse(null);
+        Map<Integer, Utilisateur> utilisateurs = utilisateurs(lignes.stream().flatMap(ligne -> {
+            List<Integer> participants = new ArrayList<>();
+            participants.add((Integer) ligne[6]);
+            participants.addAll(liste(ligne[7]));
+            participants.addAll(liste(ligne[8]));
+            return participants.stream();
+        }));
+        List<Soumission> soumissions = new ArrayList<>(lignes.size());
+        for (Object[] ligne : lignes) {
+            Soumission soumission = new Soumission();
+            soumission.setId((Integer) ligne[0]);
+            soumission.setTitreArticle((String) ligne[1]);
+            soumission.setResume((String) ligne[2]);
+            soumission.setEtat(ligne[3] == null ? null : SoumissionEtat.valueOf((String) ligne[3]));
+            soumission.setDateSoumission(ligne[4] == null ? null : new Date((Long) ligne[4]));
+            soumission.setDocumentPdf((String) ligne[5]);
+            soumission.setAuteur(utilisateurs.get((Integer) ligne[6]));
+            soumission.setConference(conference);
+            soumission.setCoAuteurs(liste(ligne[7]).stream().map(utilisateurs::get).collect(Collectors.toList()));
+            soumission.setEvaluateurs(liste(ligne[8]).stream().map(utilisateurs::get).collect(Collectors.toList()));
+            soumissions.add(soumission);
+        }
+        return soumissions;
+    }
+
+    private Map<Integer, Utilisateur> utilisateurs(Stream<Integer> ids) {
+        Set<Integer> distincts = ids.collect(Collectors.toCollection(HashSet::new));
+        return utilisateurRepository.findAllById(distincts).stream()
+                .collect(Collectors.toMap(Utilisateur::getId, Function.identity()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> liste(Object valeur) {
+        return valeur == null ? List.of() : (List<Integer>) valeur;
+    }
+
+    private static List<Integer> ids(List<Utilisateur> utilisateurs) {
+        return utilisateurs == null ? List.of() : utilisateurs.stream().map(Utilisateur::getId).toList();
+    }
+
+    private ArchiveReader lecteur(int conferenceId) {
+        return lecteurs.computeIfAbsent(conferenceId, id -> {
+            try {
+                return new ArchiveReader(fichier(id));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Archive illisible pour la conférence " + id, e);
+            }
+        });
+    }
+
+    private void fermer(int conferenceId) {
+        ArchiveReader reader = lecteurs.remove(conferenceId);
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Path fichier(int conferenceId) {
+        return repertoire.resolve("conference-" + conferenceId + ".arc");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lecteurs.keySet().forEach(this::fermer);
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+
+    // INSERT groupé avec l'identifiant d'origine ; les valeurs sont converties selon le mapping Hibernate
+    // de chaque attribut (énumérations en ordinal ou en texte, associations par identifiant)
+    private final class Reinsertion {
+
+        private final String sql;
+        private final AttributeMapping[] attributs;
+        private final List<Object[]> lignes = new ArrayList<>();
+
+        private Reinsertion(Class<?> entite, String... proprietes) {
+            AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory().getMappingMetamodel()
+                    .getEntityDescriptor(entite);
+            List<String> colonnes = new ArrayList<>();
+            colonnes.add(persister.getIdentifierColumnNames()[0]);
+            attributs = new AttributeMapping[proprietes.length];
+            for (int i = 0; i < proprietes.length; i++) {
+                colonnes.add(persister.getPropertyColumnNames(proprietes[i])[0]);
+                attributs[i] = persister.findAttributeMapping(proprietes[i]);
+            }
+            sql = "INSERT INTO " + persister.getTableName() + " (" + String.join(", ", colonnes) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(colonnes.size(), "?")) + ")";
+        }
+
+        void ajouter(Object id, Object... valeurs) {
+            Object[] ligne = new Object[valeurs.length + 1];
+            ligne[0] = id;
+            for (int i = 0; i < valeurs.length; i++) {
+                ligne[i + 1] = versJdbc(attributs[i], valeurs[i]);
+            }
+            lignes.add(ligne);
+        }
+
+        void executer() {
+            if (!lignes.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, lignes);
+                lignes.clear();
+            }
+        }
+
+        private Object versJdbc(AttributeMapping attribut, Object valeur) {
+            if (valeur instanceof Date date) {
+                return new Timestamp(date.getTime());
+            }
+            if (valeur instanceof Enum<?>) {
+                return attribut.getSingleJdbcMapping().convertToRelationalValue(valeur);
+            }
+            return valeur;
+        }
+    }
+
+    // INSERT groupé dans la table de jointure d'une association @ManyToMany, dans l'ordre de la liste
+    private final class Jointure {
+
+        private final String sql;
+        private final boolean indexee;
+        private final List<Object[]> lignes = new ArrayList<>();
+
+        private Jointure(Class<?> proprietaire, String association) {
+            AbstractCollectionPersister persister = (AbstractCollectionPersister) sessionFactory().getMappingMetamodel()
+                    .getCollectionDescriptor(proprietaire.getName() + "." + association);
+            indexee = persister.hasIndex();
+            String colonnes = persister.getKeyColumnNames()[0] + ", " + persister.getElementColumnNames()[0]
+                    + (indexee ? ", " + persister.getIndexColumnNames()[0] : "");
+            sql = "INSERT INTO " + persister.getTableName() + " (" + colonnes + ") VALUES (?, ?" + (indexee ? ", ?" : "") + ")";
+        }
+
+        void ajouter(int proprietaireId, List<Integer> elements) {
+            for (int i = 0; i < elements.size(); i++) {
+                lignes.add(indexee ? new Object[] {proprietaireId, elements.get(i), i} : new Object[] {proprietaireId, elements.get(i)});
+            }
+        }
+
+        void executer() {
+            if (!lignes.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, lignes);
+                lignes.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.conference.api.services;
+
+import com.conference.api.config.ShardRouter;
+import com.conference.api.config.ShardingProperties;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
+import com.conference.api.entities.Role;
+import com.conference.api.repositories.ConferenceRepository;
+import com.conference.api.repositories.EvaluationRepository;
+import com.conference.api.repositories.SoumissionRepository;
+import com.conference.api.repositories.UserRoleRepository;
+import com.conference.api.repositories.UtilisateurRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// L'état d'archivage suit le marqueur persisté ; une restauration validée n'est jamais rejouée
+@ExtendWith(MockitoExtension.class)
+class ArchiveServiceTest {
+
+    @TempDir
+    Path repertoire;
+
+    @Mock
+    private ConferenceRepository conferenceRepository;
+    @Mock
+    private SoumissionRepository soumissionRepository;
+    @Mock
+    private EvaluationRepository evaluationRepository;
+    @Mock
+    private UserRoleRepository userRoleRepository;
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+    @Mock
+    private CascadeDeleteService cascadeDeleteService;
+    @Mock
+    private PendingOperationService pendingOperations;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArchiveService service;
+    private Path fichier;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new ArchiveService(conferenceRepository, soumissionRepository, evaluationRepository, userRoleRepository,
+                utilisateurRepository, cascadeDeleteService, new ShardRouter(new ShardingProperties()), pendingOperations,
+                entityManager, jdbcTemplate, transactionManager, repertoire.toString(), 64);
+        fichier = Files.createFile(repertoire.resolve("conference-7.arc"));
+    }
+
+    @Test
+    void fichierSansMarqueurNEstPasUneArchive() {
+        when(pendingOperations.lire(Cible.CONFERENCE, 7)).thenReturn(Optional.empty());
+        assertThat(service.isArchived(7)).isFalse();
+    }
+
+    @Test
+    void archiveeDesLaPurge() {
+        when(pendingOperations.lire(Cible.CONFERENCE, 7)).thenReturn(Optional.of(Type.PURGE));
+        assertThat(service.isArchived(7)).isTrue();
+    }
+
+    @Test
+    void restaurationEnCoursRefusee() {
+        when(pendingOperations.changer(Cible.CONFERENCE, 7, Type.ARCHIVEE, Type.RESTAURATION)).thenReturn(false);
+        when(pendingOperations.lire(Cible.CONFERENCE, 7)).thenReturn(Optional.of(Type.RESTAURATION));
+
+        assertThatThrownBy(() -> service.restoreConference(7)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void repriseDUneRestaurationValideeLaTermine() {
+        when(pendingOperations.enCours(Cible.CONFERENCE, Type.RESTAURATION)).thenReturn(List.of(7));
+        when(soumissionRepository.countByConferenceId(7)).thenReturn(3L);
+
+        service.reprendre();
+
+        assertThat(fichier).doesNotExist();
+        verify(pendingOperations).liberer(Cible.CONFERENCE, 7, Type.RESTAURATION);
+        verify(pendingOperations, never()).changer(Cible.CONFERENCE, 7, Type.RESTAURATION, Type.ARCHIVEE);
+    }
+
+    @Test
+    void repriseDUneRestaurationNonValideeRendLaConferenceArchivee() {
+        when(pendingOperations.enCours(Cible.CONFERENCE, Type.RESTAURATION)).thenReturn(List.of(7));
+        when(soumissionRepository.countByConferenceId(7)).thenReturn(0L);
+        when(userRoleRepository.countByConferenceIdAndRoleNot(7, Role.EDITEUR)).thenReturn(0L);
+
+        service.reprendre();
+
+        assertThat(fichier).exists();
+        verify(pendingOperations).changer(Cible.CONFERENCE, 7, Type.RESTAURATION, Type.ARCHIVEE);
+        verify(pendingOperations, never()).liberer(Cible.CONFERENCE, 7, Type.RESTAURATION);
+    }
+
+    @Test
+    void repriseDUnExportInacheveAbandonneLeFichier() {
+        when(pendingOperations.enCours(Cible.CONFERENCE, Type.ARCHIVAGE)).thenReturn(List.of(7));
+
+        service.reprendre();
+
+        assertThat(fichier).doesNotExist();
+        verify(pendingOperations).liberer(Cible.CONFERENCE, 7, Type.ARCHIVAGE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.conference.api.archive;
+
+import java.util.List;
+
+// Tables d'une archive de conférence et types de leurs colonnes, dans l'ordre de stockage
+public enum ArchiveTable {
+    // id, titre, thematique, dateDebut (jour epoch), dateFin (jour epoch), etat, createurId
+    CONFERENCE(ColumnType.INT, ColumnType.STRING, ColumnType.STRING, ColumnType.LONG, ColumnType.LONG,
+            ColumnType.STRING, ColumnType.INT),
+    // id, titreArticle, resume, etat, dateSoumission (ms epoch), documentPdf, auteurId, coAuteurs, evaluateurs
+    SOUMISSION(ColumnType.INT, ColumnType.STRING, ColumnType.STRING, ColumnType.STRING, ColumnType.LONG,
+            ColumnType.STRING, ColumnType.INT, ColumnType.INT_LIST, ColumnType.INT_LIST),
+    // id, soumissionId, evaluateurId, note, commentaires, etat, dateEvaluation (ms epoch)
+    EVALUATION(ColumnType.INT, ColumnType.INT, ColumnType.INT, ColumnType.INT, ColumnType.STRING,
+            ColumnType.STRING, ColumnType.LONG),
+    // id, utilisateurId, role
+    USER_ROLE(ColumnType.LONG, ColumnType.INT, ColumnType.STRING);
+
+    public enum ColumnType { INT, LONG, STRING, INT_LIST }
+
+    private final List<ColumnType> colonnes;
+
+    ArchiveTable(ColumnType... colonnes) {
+        this.colonnes = List.of(colonnes);
+    }
+
+    public List<ColumnType> getColonnes() {
+        return colonnes;
+    }
+}
@@ -0,0 +1,89 @@
+package com.conference.api.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Écriture en flux d'une archive colonnaire : les lignes sont regroupées par lots, chaque lot
+// étant stocké colonne par colonne et compressé. Seul le lot courant réside en mémoire.
+// Format : [MAGIE][lots...][index des lots][long position de l'index][MAGIE]
+// Lot : [int lignes][pour chaque colonne : int longueur brute, int longueur compressée, octets]
+public class ArchiveWriter implements Closeable {
+
+    // Version 2 : entiers nullables (octet de présence) ; les archives de version 1 sont refusées
+    static final long MAGIE = 0x434F4E4641524332L; // "CONFARC2"
+
+    private final DataOutputStream sortie;
+    private final int lignesParLot;
+    private final List<long[]> index = new ArrayList<>();
+    private long position;
+
+    private ArchiveTable table;
+    private ColumnCodec.Encoder[] encodeurs;
+    private int lignes;
+
+    public ArchiveWriter(Path fichier, int lignesParLot) throws IOException {
+        this.sortie = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichier), 1 << 16));
+        this.lignesParLot = lignesParLot;
+        sortie.writeLong(MAGIE);
+        position = Long.BYTES;
+    }
+
+    // Ajouter une ligne ; les tables doivent être écrites l'une après l'autre
+    public void write(ArchiveTable cible, Object... valeurs) throws IOException {
+        if (cible != table) {
+            vider();
+            table = cible;
+            encodeurs = cible.getColonnes().stream().map(ColumnCodec.Encoder::new).toArray(ColumnCodec.Encoder[]::new);
+        }
+        for (int i = 0; i < encodeurs.length; i++) {
+            encodeurs[i].add(valeurs[i]);
+        }
+        if (++lignes == lignesParLot) {
+            vider();
+        }
+    }
+
+    private void vider() throws IOException {
+        if (lignes == 0) {
+            return;
+        }
+        long debut = position;
+        sortie.writeInt(lignes);
+        position += Integer.BYTES;
+        for (ColumnCodec.Encoder encodeur : encodeurs) {
+            byte[] compresse = encodeur.compress();
+            sortie.writeInt(encodeur.rawLength());
+            sortie.writeInt(compresse.length);
+            sortie.write(compresse);
+            position += Integer.BYTES * 2L + compresse.length;
+            encodeur.reset();
+        }
+        index.add(new long[]{table.ordinal(), debut, position - debut, lignes});
+        lignes = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            vider();
+            long positionIndex = position;
+            sortie.writeInt(index.size());
+            for (long[] entree : index) {
+                sortie.writeByte((int) entree[0]);
+                sortie.writeLong(entree[1]);
+                sortie.writeInt((int) entree[2]);
+                sortie.writeInt((int) entree[3]);
+            }
+            sortie.writeLong(positionIndex);
+            sortie.writeLong(MAGIE);
+        } finally {
+            sortie.close();
+        }
+    }
+}
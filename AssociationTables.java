@@ -0,0 +1,62 @@
+package com.conference.api.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Suppressions groupées dans les tables de jointure des associations @ManyToMany.
+// JPQL ne peut pas cibler une table de jointure : les noms de table et de colonnes sont lus
+// dans le métamodèle Hibernate pour construire des DELETE natifs, sans charger les entités.
+@Component
+public class AssociationTables {
+
+    private final EntityManager entityManager;
+    private final Map<String, AbstractCollectionPersister> persisters = new ConcurrentHashMap<>();
+
+    public AssociationTables(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Supprimer les lignes de jointure d'un lot de propriétaires
+    public int deleteByOwnerIdIn(Class<?> proprietaire, String association, List<Integer> ids) {
+        AbstractCollectionPersister persister = persister(proprietaire, association);
+        return entityManager.createNativeQuery("DELETE FROM " + persister.getTableName()
+                        + " WHERE " + persister.getKeyColumnNames()[0] + " IN (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    // Supprimer au plus limite lignes de jointure qui référencent un élément : les propriétaires
+    // du lot sont lus d'abord, si bien que le DELETE ne touche jamais plus d'un lot de lignes
+    public int deleteByElementId(Class<?> proprietaire, String association, int elementId, int limite) {
+        AbstractCollectionPersister persister = persister(proprietaire, association);
+        String cle = persister.getKeyColumnNames()[0];
+        String element = persister.getElementColumnNames()[0];
+        List<?> proprietaires = entityManager.createNativeQuery("SELECT " + cle + " FROM " + persister.getTableName()
+                        + " WHERE " + element + " = :elementId ORDER BY " + cle)
+                .setParameter("elementId", elementId)
+                .setMaxResults(limite)
+                .getResultList();
+        if (proprietaires.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createNativeQuery("DELETE FROM " + persister.getTableName()
+                        + " WHERE " + element + " = :elementId AND " + cle + " IN (:proprietaires)")
+                .setParameter("elementId", elementId)
+                .setParameter("proprietaires", proprietaires)
+                .executeUpdate();
+    }
+
+    private AbstractCollectionPersister persister(Class<?> proprietaire, String association) {
+        return persisters.computeIfAbsent(proprietaire.getName() + "." + association, role ->
+                (AbstractCollectionPersister) entityManager.getEntityManagerFactory()
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getMappingMetamodel()
+                        .getCollectionDescriptor(role));
+    }
+}
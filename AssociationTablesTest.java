@@ -0,0 +1,92 @@
+package com.conference.api.repositories;
+
+import com.conference.api.entities.Soumission;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Le retrait d'un élément des tables de jointure procède par lots bornés de propriétaires
+@ExtendWith(MockitoExtension.class)
+class AssociationTablesTest {
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionFactoryImplementor sessionFactory;
+    @Mock
+    private AbstractCollectionPersister persister;
+
+    private AssociationTables associationTables;
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getMappingMetamodel().getCollectionDescriptor(Soumission.class.getName() + ".coAuteurs"))
+                .thenReturn(persister);
+        when(persister.getTableName()).thenReturn("soumission_co_auteurs");
+        when(persister.getKeyColumnNames()).thenReturn(new String[] {"soumission_id"});
+        when(persister.getElementColumnNames()).thenReturn(new String[] {"co_auteurs_id"});
+        associationTables = new AssociationTables(entityManager);
+    }
+
+    @Test
+    void deleteByElementIdLitAuPlusUnLotPuisSupprimeCeLot() {
+        Query selection = requete("SELECT");
+        when(selection.getResultList()).thenReturn(List.of(1, 2, 3));
+        Query suppression = requete("DELETE");
+        when(suppression.executeUpdate()).thenReturn(3);
+
+        assertThat(associationTables.deleteByElementId(Soumission.class, "coAuteurs", 42, 3)).isEqualTo(3);
+
+        verify(selection).setMaxResults(3);
+        verify(entityManager).createNativeQuery(
+                "DELETE FROM soumission_co_auteurs WHERE co_auteurs_id = :elementId AND soumission_id IN (:proprietaires)");
+        verify(suppression).setParameter("proprietaires", List.of(1, 2, 3));
+    }
+
+    @Test
+    void deleteByElementIdSansLigneNExecuteAucunDelete() {
+        Query selection = requete("SELECT");
+        when(selection.getResultList()).thenReturn(List.of());
+
+        assertThat(associationTables.deleteByElementId(Soumission.class, "coAuteurs", 42, 500)).isZero();
+
+        verify(entityManager, never()).createNativeQuery(startsWith("DELETE"));
+    }
+
+    // Requête native chaînable dont le SQL commence par le préfixe donné
+    private Query requete(String prefixe) {
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(startsWith(prefixe))).thenReturn(query);
+        when(query.setParameter(anyString(), eq(42))).thenReturn(query);
+        if (prefixe.equals("SELECT")) {
+            when(query.setMaxResults(anyInt())).thenReturn(query);
+        } else {
+            when(query.setParameter(eq("proprietaires"), any())).thenReturn(query);
+        }
+        return query;
+    }
+}
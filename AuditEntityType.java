@@ -0,0 +1,28 @@
+package com.conference.api.audit;
+
+// Type d'entité journalisée ; le code est stocké sur un octet dans le journal
+public enum AuditEntityType {
+    CONFERENCE((byte) 1),
+    SOUMISSION((byte) 2),
+    EVALUATION((byte) 3),
+    USER_ROLE((byte) 4);
+
+    private final byte code;
+
+    AuditEntityType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static AuditEntityType fromCode(byte code) {
+        for (AuditEntityType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Type d'entité d'audit inconnu : " + code);
+    }
+}
@@ -0,0 +1,303 @@
+package com.conference.api.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+// Journal d'audit en ajout seul : les transitions sont empilées sans verrou par les threads
+// de requête, puis écrites par un thread dédié dans des segments mappés en mémoire.
+// L'écrivain s'endort quand la file est vide et n'est réveillé que par le producteur suivant.
+// Format d'un enregistrement : [int longueur][byte type][long id][long horodatage]
+// [short n][n octets ancien état][short m][m octets nouvel état]. Une longueur 0 marque la fin.
+// Dans une transaction, l'enregistrement n'est empilé qu'après le commit : une transition annulée
+// n'apparaît jamais dans le journal.
+@Component
+public class AuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    static final int ENTETE = Integer.BYTES;
+    static final String PREFIXE_SEGMENT = "audit-";
+    static final String SUFFIXE_SEGMENT = ".seg";
+    static final int TAILLE_MAX_ETAT = Short.MAX_VALUE;
+
+    private final Path repertoire;
+    private final int tailleSegment;
+    private final int capaciteFile;
+    private final int tailleGroupe;
+    private final long intervalleSyncNanos;
+    private final boolean actif;
+
+    private final Queue<AuditRecord> file = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger enAttente = new AtomicInteger();
+    private final AtomicLong ecrits = new AtomicLong();
+    private final AtomicLong rejetes = new AtomicLong();
+    private final AtomicBoolean endormi = new AtomicBoolean();
+
+    // Segment actif (32 bits de poids fort) et position publiée (32 bits de poids faible)
+    private volatile long positionPubliee;
+    private volatile boolean enService;
+    private Thread ecrivain;
+    private FileChannel canal;
+    private MappedByteBuffer segment;
+    private int indexSegment;
+
+    public AuditJournal(@Value("${app.audit.directory:audit}") String repertoire,
+                        @Value("${app.audit.segment-size:67108864}") int tailleSegment,
+                        @Value("${app.audit.queue-capacity:1000000}") int capaciteFile,
+                        @Value("${app.audit.group-size:4096}") int tailleGroupe,
+                        @Value("${app.audit.fsync-interval-ms:20}") long intervalleSyncMs,
+                        @Value("${app.audit.enabled:true}") boolean actif) {
+        this.repertoire = Path.of(repertoire);
+        this.tailleSegment = tailleSegment;
+        this.capaciteFile = capaciteFile;
+        this.tailleGroupe = tailleGroupe;
+        this.intervalleSyncNanos = TimeUnit.MILLISECONDS.toNanos(intervalleSyncMs);
+        this.actif = actif;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!actif) {
+            return;
+        }
+        Files.createDirectories(repertoire);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            ouvrirSegment(0, 0);
+        } else {
+            Path dernier = segments.get(segments.size() - 1);
+            ouvrirSegment(indexDe(dernier), -1);
+        }
+        enService = true;
+        ecrivain = new Thread(this::boucleEcriture, "audit-journal");
+        ecrivain.setDaemon(true);
+        ecrivain.start();
+    }
+
+    // Journaliser une transition d'état ; ne bloque jamais le thread appelant
+    public void record(AuditEntityType type, long entityId, Object ancienEtat, Object nouvelEtat) {
+        if (!enService) {
+            return;
+        }
+        String ancien = nom(ancienEtat);
+        String nouveau = nom(nouvelEtat);
+        // Un état trop long est refusé tout de suite, ce qui annule encore la transaction appelante
+        verifierTaille(ancien);
+        verifierTaille(nouveau);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            empiler(type, entityId, ancien, nouveau);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                empiler(type, entityId, ancien, nouveau);
+            }
+        });
+    }
+
+    private void empiler(AuditEntityType type, long entityId, String ancien, String nouveau) {
+        if (enAttente.incrementAndGet() > capaciteFile) {
+            enAttente.decrementAndGet();
+            if (rejetes.getAndIncrement() % 10_000 == 0) {
+                log.warn("File du journal d'audit saturée, {} événements rejetés", rejetes.get());
+            }
+            return;
+        }
+        file.offer(new AuditRecord(type, entityId, System.currentTimeMillis(), ancien, nouveau));
+        if (endormi.get() && endormi.compareAndSet(true, false)) {
+            LockSupport.unpark(ecrivain);
+        }
+    }
+
+    // Journaliser seulement si l'état a réellement changé
+    public void recordIfChanged(AuditEntityType type, long entityId, Object ancienEtat, Object nouvelEtat) {
+        if (!nom(ancienEtat).equals(nom(nouvelEtat))) {
+            record(type, entityId, ancienEtat, nouvelEtat);
+        }
+    }
+
+    public long getEcrits() {
+        return ecrits.get();
+    }
+
+    public long getRejetes() {
+        return rejetes.get();
+    }
+
+    public int getEnAttente() {
+        return enAttente.get();
+    }
+
+    Path getRepertoire() {
+        return repertoire;
+    }
+
+    long getPositionPubliee() {
+        return positionPubliee;
+    }
+
+    List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(repertoire)) {
+            return List.of();
+        }
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            return fichiers
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXE_SEGMENT)
+                            && p.getFileName().toString().endsWith(SUFFIXE_SEGMENT))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static int indexDe(Path segment) {
+        String nom = segment.getFileName().toString();
+        return Integer.parseInt(nom.substring(PREFIXE_SEGMENT.length(), nom.length() - SUFFIXE_SEGMENT.length()));
+    }
+
+    private void boucleEcriture() {
+        long dernierSync = System.nanoTime();
+        int nonSynchronises = 0;
+        while (enService || !file.isEmpty()) {
+            AuditRecord enregistrement = file.poll();
+            long maintenant = System.nanoTime();
+            if (enregistrement == null) {
+                if (nonSynchronises > 0 && maintenant - dernierSync >= intervalleSyncNanos) {
+                    segment.force();
+                    dernierSync = maintenant;
+                    nonSynchronises = 0;
+                }
+                attendre(nonSynchronises > 0 ? intervalleSyncNanos - (maintenant - dernierSync) : 0);
+                continue;
+            }
+            enAttente.decrementAndGet();
+            try {
+                ecrire(enregistrement);
+                ecrits.incrementAndGet();
+            } catch (RuntimeException e) {
+                log.error("Écriture impossible dans le journal d'audit", e);
+            }
+            // Synchronisation groupée : par taille de lot ou par intervalle
+            if (++nonSynchronises >= tailleGroupe || maintenant - dernierSync >= intervalleSyncNanos) {
+                segment.force();
+                dernierSync = maintenant;
+                nonSynchronises = 0;
+            }
+        }
+        segment.force();
+    }
+
+    // S'endormir jusqu'au prochain enregistrement, ou jusqu'à l'échéance de synchronisation (délai > 0).
+    // Le drapeau est posé avant la revérification de la file : un producteur ne peut pas être manqué.
+    private void attendre(long delaiNanos) {
+        endormi.set(true);
+        if (!file.isEmpty() || !enService) {
+            endormi.set(false);
+            return;
+        }
+        if (delaiNanos > 0) {
+            LockSupport.parkNanos(this, delaiNanos);
+        } else {
+            LockSupport.park(this);
+        }
+        endormi.set(false);
+    }
+
+    private static void verifierTaille(String etat) {
+        if (etat.length() > TAILLE_MAX_ETAT / 3 && etat.getBytes(StandardCharsets.UTF_8).length > TAILLE_MAX_ETAT) {
+            throw new IllegalArgumentException("État trop long pour le journal d'audit (" + TAILLE_MAX_ETAT + " octets au plus).");
+        }
+    }
+
+    private void ecrire(AuditRecord enregistrement) {
+        byte[] ancien = enregistrement.ancienEtat().getBytes(StandardCharsets.UTF_8);
+        byte[] nouveau = enregistrement.nouvelEtat().getBytes(StandardCharsets.UTF_8);
+        int longueur = 1 + Long.BYTES * 2 + Short.BYTES * 2 + ancien.length + nouveau.length;
+        if (segment.remaining() < ENTETE + longueur + ENTETE) {
+            rotation();
+        }
+        int debut = segment.position();
+        segment.position(debut + ENTETE);
+        segment.put(enregistrement.type().getCode());
+        segment.putLong(enregistrement.entityId());
+        segment.putLong(enregistrement.timestamp());
+        segment.putShort((short) ancien.length);
+        segment.put(ancien);
+        segment.putShort((short) nouveau.length);
+        segment.put(nouveau);
+        // La longueur est écrite en dernier : un enregistrement partiel reste invisible
+        segment.putInt(debut, longueur);
+        positionPubliee = ((long) indexSegment << 32) | segment.position();
+    }
+
+    private void rotation() {
+        segment.force();
+        try {
+            canal.close();
+            ouvrirSegment(indexSegment + 1, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Ouvrir un segment ; une position négative demande de retrouver la fin des données
+    private void ouvrirSegment(int index, int position) throws IOException {
+        Path chemin = repertoire.resolve(String.format("%s%08d%s", PREFIXE_SEGMENT, index, SUFFIXE_SEGMENT));
+        canal = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = canal.map(FileChannel.MapMode.READ_WRITE, 0, tailleSegment);
+        indexSegment = index;
+        if (position < 0) {
+            position = 0;
+            int longueur;
+            while (position + ENTETE <= tailleSegment
+                    && (longueur = segment.getInt(position)) > 0
+                    && position + ENTETE + longueur <= tailleSegment) {
+                position += ENTETE + longueur;
+            }
+        }
+        segment.position(position);
+        positionPubliee = ((long) index << 32) | position;
+    }
+
+    private static String nom(Object etat) {
+        if (etat == null) {
+            return "";
+        }
+        return etat instanceof Enum<?> e ? e.name() : etat.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (!enService) {
+            return;
+        }
+        enService = false;
+        LockSupport.unpark(ecrivain);
+        ecrivain.join(TimeUnit.SECONDS.toMillis(10));
+        canal.close();
+    }
+}
@@ -0,0 +1,160 @@
+package com.conference.api.audit;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Relecture du journal d'audit à partir des segments mappés en lecture seule.
+// Un index en mémoire associe chaque entité aux positions de ses enregistrements ; il est
+// complété à chaque requête par les seuls enregistrements publiés depuis la précédente,
+// si bien qu'un historique coûte le nombre d'événements de l'entité, pas la taille du journal.
+@Component
+public class AuditJournalReader {
+
+    private final AuditJournal journal;
+    private final Map<Integer, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+
+    // Positions (segment sur 32 bits de poids fort, décalage sur 32 bits de poids faible) par entité
+    private final Map<Long, Positions> index = new HashMap<>();
+    private long indexeJusqua;
+
+    public AuditJournalReader(AuditJournal journal) {
+        this.journal = journal;
+    }
+
+    // Historique d'une entité, dans l'ordre d'écriture
+    public List<AuditRecord> history(AuditEntityType type, long entityId) {
+        long[] positions;
+        synchronized (index) {
+            rattraper();
+            Positions entite = index.get(cle(type.getCode(), entityId));
+            positions = entite == null ? new long[0] : entite.copie();
+        }
+        List<AuditRecord> historique = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            historique.add(lire(segment((int) (position >>> 32)), (int) position));
+        }
+        return historique;
+    }
+
+    // Rejouer tous les enregistrements publiés
+    public void replay(Consumer<AuditRecord> consommateur) {
+        parcourir(0L, journal.getPositionPubliee(), (position, tampon, decalage) ->
+                consommateur.accept(lire(tampon, decalage)));
+    }
+
+    // Indexer les enregistrements publiés depuis le dernier appel
+    private void rattraper() {
+        long publiee = journal.getPositionPubliee();
+        if (publiee == indexeJusqua) {
+            return;
+        }
+        parcourir(indexeJusqua, publiee, (position, tampon, decalage) -> {
+            int corps = decalage + AuditJournal.ENTETE;
+            index.computeIfAbsent(cle(tampon.get(corps), tampon.getLong(corps + 1)), c -> new Positions())
+                    .ajouter(position);
+        });
+        indexeJusqua = publiee;
+    }
+
+    // Parcourir les enregistrements compris entre deux positions publiées
+    private void parcourir(long depuis, long jusqua, Visiteur visiteur) {
+        int premierSegment = (int) (depuis >>> 32);
+        int dernierSegment = (int) (jusqua >>> 32);
+        try {
+            for (Path chemin : journal.listSegments()) {
+                int numero = AuditJournal.indexDe(chemin);
+                if (numero < premierSegment) {
+                    continue;
+                }
+                if (numero > dernierSegment) {
+                    break;
+                }
+                MappedByteBuffer tampon = segment(numero);
+                int decalage = numero == premierSegment ? (int) depuis : 0;
+                int limite = numero == dernierSegment ? (int) jusqua : tampon.capacity();
+                while (decalage + AuditJournal.ENTETE <= limite) {
+                    int longueur = tampon.getInt(decalage);
+                    if (longueur <= 0 || decalage + AuditJournal.ENTETE + longueur > limite) {
+                        break;
+                    }
+                    visiteur.visiter(((long) numero << 32) | decalage, tampon, decalage);
+                    decalage += AuditJournal.ENTETE + longueur;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Lecture en accès absolu : le tampon partagé n'a pas de position à protéger
+    private AuditRecord lire(MappedByteBuffer tampon, int decalage) {
+        int position = decalage + AuditJournal.ENTETE;
+        AuditEntityType type = AuditEntityType.fromCode(tampon.get(position));
+        long entityId = tampon.getLong(position + 1);
+        long horodatage = tampon.getLong(position + 1 + Long.BYTES);
+        position += 1 + Long.BYTES * 2;
+        String ancien = lireChaine(tampon, position);
+        position += Short.BYTES + tampon.getShort(position);
+        String nouveau = lireChaine(tampon, position);
+        return new AuditRecord(type, entityId, horodatage, ancien, nouveau);
+    }
+
+    private String lireChaine(MappedByteBuffer tampon, int position) {
+        byte[] octets = new byte[tampon.getShort(position)];
+        tampon.get(position + Short.BYTES, octets);
+        return new String(octets, StandardCharsets.UTF_8);
+    }
+
+    // Segments mappés une seule fois ; un segment n'est jamais réécrit une fois ses données publiées
+    private MappedByteBuffer segment(int numero) {
+        return segments.computeIfAbsent(numero, n -> {
+            Path chemin = journal.getRepertoire().resolve(
+                    String.format("%s%08d%s", AuditJournal.PREFIXE_SEGMENT, n, AuditJournal.SUFFIXE_SEGMENT));
+            try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+                return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static long cle(byte type, long entityId) {
+        return ((long) type << 56) ^ entityId;
+    }
+
+    @FunctionalInterface
+    private interface Visiteur {
+        void visiter(long position, MappedByteBuffer tampon, int decalage);
+    }
+
+    // Liste extensible de positions, sans objet par enregistrement
+    private static final class Positions {
+        private long[] valeurs = new long[4];
+        private int taille;
+
+        void ajouter(long position) {
+            if (taille == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, taille * 2);
+            }
+            valeurs[taille++] = position;
+        }
+
+        long[] copie() {
+            return Arrays.copyOf(valeurs, taille);
+        }
+    }
+}
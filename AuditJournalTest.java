@@ -0,0 +1,75 @@
+package com.conference.api.audit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Dans une transaction, une transition n'est journalisée qu'une fois la transaction validée
+class AuditJournalTest {
+
+    @TempDir
+    Path repertoire;
+
+    private AuditJournal journal;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new AuditJournal(repertoire.toString(), 1 << 16, 1000, 1, 1, true);
+        journal.start();
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:audit-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.shutdown();
+    }
+
+    @Test
+    void transitionValideeJournaliseeApresLeCommit() throws Exception {
+        transaction.executeWithoutResult(status -> {
+            journal.record(AuditEntityType.SOUMISSION, 3, "EN_REVUE", "ACCEPTEE");
+            assertThat(journal.getEnAttente() + journal.getEcrits()).isZero();
+        });
+        journal.shutdown();
+
+        assertThat(journal.getEcrits()).isEqualTo(1);
+        assertThat(new AuditJournalReader(journal).history(AuditEntityType.SOUMISSION, 3))
+                .extracting(AuditRecord::nouvelEtat).containsExactly("ACCEPTEE");
+    }
+
+    @Test
+    void transitionAnnuleeJamaisJournalisee() throws Exception {
+        transaction.executeWithoutResult(status -> {
+            journal.record(AuditEntityType.SOUMISSION, 3, "EN_REVUE", "ACCEPTEE");
+            status.setRollbackOnly();
+        });
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            journal.recordIfChanged(AuditEntityType.EVALUATION, 4, "EN_REVISION", "REJETEE");
+            throw new IllegalStateException("échec après l'écriture");
+        })).isInstanceOf(IllegalStateException.class);
+        journal.shutdown();
+
+        assertThat(journal.getEcrits()).isZero();
+    }
+
+    @Test
+    void horsTransactionJournaliseeImmediatement() throws Exception {
+        journal.record(AuditEntityType.CONFERENCE, 1, "OUVERTE", "EN_REVUE");
+        journal.shutdown();
+
+        assertThat(journal.getEcrits()).isEqualTo(1);
+    }
+}
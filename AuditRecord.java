@@ -0,0 +1,5 @@
+package com.conference.api.audit;
+
+// Transition d'état d'une entité ; un état null est journalisé comme chaîne vide
+public record AuditRecord(AuditEntityType type, long entityId, long timestamp, String ancienEtat, String nouvelEtat) {
+}
@@ -0,0 +1,36 @@
+package com.conference.api.controllers;
+
+import com.conference.api.dto.LoginDTO;
+import com.conference.api.dto.TokenDTO;
+import com.conference.api.services.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private final AuthService authService;
+
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Operation(summary = "Se connecter et obtenir un jeton d'accès")
+    @PostMapping("/login")
+    public ResponseEntity<TokenDTO> login(@Valid @RequestBody LoginDTO loginDTO) {
+        return ResponseEntity.ok(authService.login(loginDTO.getEmail(), loginDTO.getPassword()));
+    }
+
+    @Operation(summary = "Renouveler un jeton d'accès avec les rôles à jour")
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenDTO> refresh(Authentication authentication) {
+        return ResponseEntity.ok(authService.refresh(authentication));
+    }
+}
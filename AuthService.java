@@ -0,0 +1,68 @@
+package com.conference.api.services;
+
+import com.conference.api.dto.TokenDTO;
+import com.conference.api.security.CachedPrincipal;
+import com.conference.api.security.PrincipalCache;
+import com.conference.api.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+public class AuthService {
+
+    private final DaoAuthenticationProvider authenticationProvider;
+    private final PrincipalCache principalCache;
+    private final TokenService tokenService;
+    private final Duration sessionMax;
+
+    public AuthService(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                       PrincipalCache principalCache, TokenService tokenService,
+                       @Value("${app.security.token.max-session-hours:12}") long sessionMaxHeures) {
+        this.authenticationProvider = new DaoAuthenticationProvider();
+        this.authenticationProvider.setUserDetailsService(userDetailsService);
+        this.authenticationProvider.setPasswordEncoder(passwordEncoder);
+        this.principalCache = principalCache;
+        this.tokenService = tokenService;
+        this.sessionMax = Duration.ofHours(sessionMaxHeures);
+    }
+
+    // Vérifier le mot de passe une seule fois, puis émettre un jeton portant les rôles
+    public TokenDTO login(String email, String password) {
+        Authentication authentication = authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken(email, password));
+        return emettre(principalCache.get(authentication.getName()), Instant.now());
+    }
+
+    // Renouveler un jeton valide avec les rôles à jour, sans nouvelle vérification du mot de passe,
+    // jusqu'à sessionMax après la connexion d'origine ; au-delà, il faut se reconnecter
+    public TokenDTO refresh(Authentication authentication) {
+        if (authentication == null
+                || !(authentication.getPrincipal() instanceof CachedPrincipal principal)
+                || principal.authentifieLe() <= 0) {
+            throw new BadCredentialsException("Seul un jeton d'accès peut être renouvelé.");
+        }
+        Instant authentifieLe = Instant.ofEpochSecond(principal.authentifieLe());
+        if (!Instant.now().isBefore(authentifieLe.plus(sessionMax))) {
+            throw new CredentialsExpiredException("Session expirée : veuillez vous reconnecter.");
+        }
+        return emettre(principalCache.get(principal.email()), authentifieLe);
+    }
+
+    private TokenDTO emettre(CachedPrincipal principal, Instant authentifieLe) {
+        Instant expirationMax = authentifieLe.plus(sessionMax);
+        String jeton = tokenService.issue(principal.authentifieA(authentifieLe.getEpochSecond()), expirationMax);
+        long validite = Math.min(tokenService.getValidite().toSeconds(),
+                Duration.between(Instant.now(), expirationMax).toSeconds());
+        return new TokenDTO(jeton, validite);
+    }
+}
@@ -0,0 +1,16 @@
+package com.conference.api.security;
+
+import java.util.List;
+
+// Identité et rôles d'un utilisateur authentifié, tels que portés par le jeton.
+// authentifieLe : instant (secondes epoch) de la vérification du mot de passe, 0 hors jeton
+public record CachedPrincipal(int utilisateurId, String email, List<String> roles, long authentifieLe) {
+
+    public CachedPrincipal(int utilisateurId, String email, List<String> roles) {
+        this(utilisateurId, email, roles, 0L);
+    }
+
+    public CachedPrincipal authentifieA(long instant) {
+        return new CachedPrincipal(utilisateurId, email, roles, instant);
+    }
+}
@@ -0,0 +1,290 @@
+package com.conference.api.services;
+
+import com.conference.api.config.ReadWriteRoutingDataSource;
+import com.conference.api.config.ReferenceDataReplicator;
+import com.conference.api.config.ShardRouter;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
+import com.conference.api.entities.Soumission;
+import com.conference.api.entities.Utilisateur;
+import com.conference.api.repositories.AssociationTables;
+import com.conference.api.repositories.ConferenceRepository;
+import com.conference.api.repositories.EvaluationRepository;
+import com.conference.api.repositories.SoumissionRepository;
+import com.conference.api.repositories.UserRoleRepository;
+import com.conference.api.repositories.UtilisateurRepository;
+import com.conference.api.security.PrincipalCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+// Suppression asynchrone, par lots, des conférences et utilisateurs avec leurs dépendances.
+// L'entité est marquée (marqueur persisté) et masquée dès la demande ; les lignes dépendantes
+// sont ensuite supprimées par des DELETE groupés, chaque lot dans sa propre transaction courte.
+// Les suppressions interrompues par un redémarrage reprennent au démarrage suivant.
+@Service
+public class CascadeDeleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    private final ConferenceRepository conferenceRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final SoumissionRepository soumissionRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final AssociationTables associationTables;
+    private final PendingOperationService pendingOperations;
+    private final PrincipalCache principalCache;
+    private final ShardRouter shardRouter;
+    private final ReferenceDataReplicator replicator;
+    private final TransactionTemplate transactionTemplate;
+    private final int tailleLot;
+
+    private final Map<String, DeletionProgress> avancements = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cascade-delete");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CascadeDeleteService(ConferenceRepository conferenceRepository,
+                                UtilisateurRepository utilisateurRepository,
+                                SoumissionRepository soumissionRepository,
+                                EvaluationRepository evaluationRepository,
+                                UserRoleRepository userRoleRepository,
+                                AssociationTables associationTables,
+                                PendingOperationService pendingOperations,
+                                PrincipalCache principalCache,
+                                ShardRouter shardRouter,
+                                ReferenceDataReplicator replicator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.deletion.chunk-size:500}") int tailleLot) {
+        this.conferenceRepository = conferenceRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.soumissionRepository = soumissionRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.associationTables = associationTables;
+        this.pendingOperations = pendingOperations;
+        this.principalCache = principalCache;
+        this.shardRouter = shardRouter;
+        this.replicator = replicator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tailleLot = tailleLot;
+    }
+
+    // Marquer une conférence comme supprimée et planifier la purge de ses dépendances
+    public DeletionProgress scheduleConferenceDeletion(int conferenceId) {
+        pendingOperations.acquerir(Cible.CONFERENCE, conferenceId, Type.SUPPRESSION);
+        return planifierConference(conferenceId);
+    }
+
+    // Marquer un utilisateur comme supprimé et planifier la purge de ses dépendances.
+    // Un créateur de conférences est refusé : ses conférences doivent d'abord être supprimées.
+    public DeletionProgress scheduleUtilisateurDeletion(int utilisateurId) {
+        verifierSansConference(utilisateurId);
+        pendingOperations.acquerir(Cible.UTILISATEUR, utilisateurId, Type.SUPPRESSION);
+        return planifierUtilisateur(utilisateurId);
+    }
+
+    // Reprendre les suppressions marquées mais interrompues (redémarrage, panne)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendre() {
+        pendingOperations.enCours(Cible.CONFERENCE, Type.SUPPRESSION).forEach(this::planifierConference);
+        pendingOperations.enCours(Cible.UTILISATEUR, Type.SUPPRESSION).forEach(this::planifierUtilisateur);
+    }
+
+    public boolean isConferenceDeleted(int conferenceId) {
+        return pendingOperations.isPending(Cible.CONFERENCE, conferenceId, Type.SUPPRESSION);
+    }
+
+    public boolean isUtilisateurDeleted(int utilisateurId) {
+        return pendingOperations.isPending(Cible.UTILISATEUR, utilisateurId, Type.SUPPRESSION);
+    }
+
+    // Avancement de la dernière suppression demandée pour une conférence
+    public DeletionProgress getConferenceProgress(int conferenceId) {
+        return avancements.get(cle("conference", conferenceId));
+    }
+
+    // Avancement de la dernière suppression demandée pour un utilisateur
+    public DeletionProgress getUtilisateurProgress(int utilisateurId) {
+        return avancements.get(cle("utilisateur", utilisateurId));
+    }
+
+    private DeletionProgress planifierConference(int conferenceId) {
+        DeletionProgress progress = new DeletionProgress("conference", conferenceId);
+        avancements.put(cle("conference", conferenceId), progress);
+        executor.submit(ReadWriteRoutingDataSource.isoler(() -> executer(progress,
+                () -> shardRouter.onEntity(conferenceId, () -> purgeConference(progress, conferenceId)),
+                () -> pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.SUPPRESSION))));
+        return progress;
+    }
+
+    private DeletionProgress planifierUtilisateur(int utilisateurId) {
+        DeletionProgress progress = new DeletionProgress("utilisateur", utilisateurId);
+        avancements.put(cle("utilisateur", utilisateurId), progress);
+        executor.submit(ReadWriteRoutingDataSource.isoler(() -> executer(progress, () -> purgeUtilisateur(progress, utilisateurId),
+                () -> pendingOperations.liberer(Cible.UTILISATEUR, utilisateurId, Type.SUPPRESSION))));
+        return progress;
+    }
+
+    private void executer(DeletionProgress progress, Runnable purge, Runnable annulation) {
+        progress.demarrer();
+        try {
+            purge.run();
+            progress.terminer();
+            log.info("Suppression {} {} terminée : {} lignes en {} lots ({} lignes/s)",
+                    progress.getType(), progress.getEntityId(), progress.getLignesSupprimees(),
+                    progress.getLots(), Math.round(progress.getLignesParSeconde()));
+        } catch (Exception e) {
+            // L'entité redevient visible : les lots déjà supprimés ne concernent que des dépendances
+            annulation.run();
+            progress.echouer(e);
+            log.error("Échec de la suppression {} {}", progress.getType(), progress.getEntityId(), e);
+        }
+    }
+
+    // Retirer des tables actives les évaluations, soumissions et rôles d'une conférence archivée,
+    // limités aux identifiants effectivement écrits dans l'archive. Le rôle d'éditeur est conservé.
+    public DeletionProgress purgeArchivedConference(int conferenceId, List<Integer> evaluationIds,
+                                                    List<Integer> soumissionIds, List<Long> roleIds) {
+        DeletionProgress progress = new DeletionProgress("archive", conferenceId);
+        avancements.put(cle("archive", conferenceId), progress);
+        progress.demarrer();
+        try {
+            shardRouter.onEntity(conferenceId, () -> {
+                parTranches(progress, evaluationIds, evaluationRepository::deleteByIdIn);
+                parTranches(progress, soumissionIds, ids -> associationTables.deleteByOwnerIdIn(Soumission.class, "coAuteurs", ids)
+                        + associationTables.deleteByOwnerIdIn(Soumission.class, "evaluateurs", ids)
+                        + soumissionRepository.deleteByIdIn(ids));
+                parTranches(progress, roleIds, this::supprimerRoles);
+            });
+            principalCache.invalidateAll();
+            progress.terminer();
+            return progress;
+        } catch (RuntimeException e) {
+            progress.echouer(e);
+            throw e;
+        }
+    }
+
+    private void purgeConference(DeletionProgress progress, int conferenceId) {
+        parLots(progress, () -> supprimerSoumissions(
+                soumissionRepository.findIdsByConferenceId(conferenceId, premierLot())));
+        parLots(progress, () -> supprimerRoles(
+                userRoleRepository.findIdsByConferenceId(conferenceId, premierLot())));
+        principalCache.invalidateAll();
+        transactionTemplate.executeWithoutResult(status -> conferenceRepository.deleteById(conferenceId));
+        progress.lotTermine(1);
+        pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.SUPPRESSION);
+    }
+
+    // Un utilisateur est répliqué sur toutes les partitions : ses dépendances y sont purgées une à une
+    private void purgeUtilisateur(DeletionProgress progress, int utilisateurId) {
+        // Revérifié avant toute suppression : une conférence a pu être créée avant la pose du marqueur
+        verifierSansConference(utilisateurId);
+        for (int partition = 0; partition < shardRouter.getPartitions(); partition++) {
+            shardRouter.onShard(partition, () -> {
+                parLots(progress, () -> {
+                    List<Integer> ids = evaluationRepository.findIdsByEvaluateurId(utilisateurId, premierLot());
+                    return ids.isEmpty() ? 0 : evaluationRepository.deleteByIdIn(ids);
+                });
+                parLots(progress, () -> retirerParticipations(utilisateurId, "coAuteurs"));
+                parLots(progress, () -> retirerParticipations(utilisateurId, "evaluateurs"));
+                parLots(progress, () -> supprimerSoumissions(
+                        soumissionRepository.findIdsByAuteurId(utilisateurId, premierLot())));
+                parLots(progress, () -> supprimerRoles(
+                        userRoleRepository.findIdsByUtilisateurId(utilisateurId, premierLot())));
+            });
+        }
+        principalCache.invalidate(utilisateurId);
+        // Suppression sur la partition de référence, propagée aux copies dans la même transaction
+        shardRouter.onShard(0, () -> transactionTemplate.executeWithoutResult(status -> {
+            utilisateurRepository.deleteById(utilisateurId);
+            replicator.synchroniser(Utilisateur.class, utilisateurId);
+        }));
+        progress.lotTermine(1);
+        pendingOperations.liberer(Cible.UTILISATEUR, utilisateurId, Type.SUPPRESSION);
+    }
+
+    private void verifierSansConference(int utilisateurId) {
+        long conferences = shardRouter.fanOut(() -> List.of(conferenceRepository.countByCreateurId(utilisateurId))).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        if (conferences > 0) {
+            throw new IllegalArgumentException("L'utilisateur " + utilisateurId + " a créé " + conferences
+                    + " conférence(s) : elles doivent être supprimées avant l'utilisateur.");
+        }
+    }
+
+    // Exécuter des lots dans des transactions séparées jusqu'à épuisement
+    private void parLots(DeletionProgress progress, IntSupplier lot) {
+        while (true) {
+            Integer lignes = transactionTemplate.execute(status -> lot.getAsInt());
+            if (lignes == null || lignes == 0) {
+                return;
+            }
+            progress.lotTermine(lignes);
+        }
+    }
+
+    // Traiter une liste d'identifiants connue d'avance, une tranche par transaction
+    private <T> void parTranches(DeletionProgress progress, List<T> ids, ToIntFunction<List<T>> tranche) {
+        for (int debut = 0; debut < ids.size(); debut += tailleLot) {
+            List<T> lot = ids.subList(debut, Math.min(debut + tailleLot, ids.size()));
+            Integer lignes = transactionTemplate.execute(status -> tranche.applyAsInt(lot));
+            progress.lotTermine(lignes == null ? 0 : lignes);
+        }
+    }
+
+    // Supprimer un lot de soumissions avec leurs évaluations et lignes de jointure, sans charger les entités
+    private int supprimerSoumissions(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int lignes = evaluationRepository.deleteBySoumissionIdIn(ids);
+        lignes += associationTables.deleteByOwnerIdIn(Soumission.class, "coAuteurs", ids);
+        lignes += associationTables.deleteByOwnerIdIn(Soumission.class, "evaluateurs", ids);
+        return lignes + soumissionRepository.deleteByIdIn(ids);
+    }
+
+    private int supprimerRoles(List<Long> ids) {
+        return ids.isEmpty() ? 0 : userRoleRepository.deleteByIdIn(ids);
+    }
+
+    // Retirer l'utilisateur d'un lot de soumissions (co-auteurs ou évaluateurs)
+    private int retirerParticipations(int utilisateurId, String association) {
+        return associationTables.deleteByElementId(Soumission.class, association, utilisateurId, tailleLot);
+    }
+
+    // Toujours la première page : les lignes traitées disparaissent du résultat
+    private Pageable premierLot() {
+        return PageRequest.of(0, tailleLot);
+    }
+
+    private String cle(String type, int id) {
+        return type + ":" + id;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,178 @@
+package com.conference.api.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Encodage d'une colonne : entiers précédés d'un octet de présence (0 pour null) puis en varint
+// zigzag delta, chaînes préfixées par leur longueur + 1 (0 pour null), listes d'entiers en varint ;
+// le bloc obtenu est ensuite compressé (Deflate)
+final class ColumnCodec {
+
+    private ColumnCodec() {
+    }
+
+    // Encodeur d'une colonne pour un groupe de lignes en cours de construction
+    static final class Encoder {
+        private final ArchiveTable.ColumnType type;
+        private final ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        private long precedent;
+
+        Encoder(ArchiveTable.ColumnType type) {
+            this.type = type;
+        }
+
+        void add(Object valeur) {
+            switch (type) {
+                case INT, LONG -> {
+                    // Un null n'avance pas la base du delta
+                    if (valeur == null) {
+                        octets.write(0);
+                    } else {
+                        long courant = ((Number) valeur).longValue();
+                        octets.write(1);
+                        writeVarLong(octets, zigzag(courant - precedent));
+                        precedent = courant;
+                    }
+                }
+                case STRING -> {
+                    if (valeur == null) {
+                        writeVarLong(octets, 0);
+                    } else {
+                        byte[] utf8 = valeur.toString().getBytes(StandardCharsets.UTF_8);
+                        writeVarLong(octets, utf8.length + 1L);
+                        octets.writeBytes(utf8);
+                    }
+                }
+                case INT_LIST -> {
+                    @SuppressWarnings("unchecked")
+                    List<Integer> liste = valeur == null ? List.of() : (List<Integer>) valeur;
+                    writeVarLong(octets, liste.size());
+                    long dernier = 0;
+                    for (Integer element : liste) {
+                        writeVarLong(octets, zigzag(element - dernier));
+                        dernier = element;
+                    }
+                }
+            }
+        }
+
+        int rawLength() {
+            return octets.size();
+        }
+
+        byte[] compress() {
+            byte[] brut = octets.toByteArray();
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            deflater.setInput(brut);
+            deflater.finish();
+            ByteArrayOutputStream sortie = new ByteArrayOutputStream(Math.max(64, brut.length / 2));
+            byte[] tampon = new byte[8192];
+            while (!deflater.finished()) {
+                sortie.write(tampon, 0, deflater.deflate(tampon));
+            }
+            deflater.end();
+            return sortie.toByteArray();
+        }
+
+        void reset() {
+            octets.reset();
+            precedent = 0;
+        }
+    }
+
+    // Décompresser puis décoder une colonne complète d'un groupe de lignes
+    static Object[] decode(ArchiveTable.ColumnType type, ByteBuffer compresse, int longueurBrute, int lignes) {
+        byte[] brut = new byte[longueurBrute];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compresse);
+            int lus = 0;
+            while (lus < longueurBrute && !inflater.finished()) {
+                lus += inflater.inflate(brut, lus, longueurBrute - lus);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Archive corrompue", e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer source = ByteBuffer.wrap(brut);
+        Object[] valeurs = new Object[lignes];
+        long precedent = 0;
+        for (int i = 0; i < lignes; i++) {
+            switch (type) {
+                case INT -> {
+                    if (source.get() == 0) {
+                        valeurs[i] = null;
+                    } else {
+                        precedent += unzigzag(readVarLong(source));
+                        valeurs[i] = (int) precedent;
+                    }
+                }
+                case LONG -> {
+                    if (source.get() == 0) {
+                        valeurs[i] = null;
+                    } else {
+                        precedent += unzigzag(readVarLong(source));
+                        valeurs[i] = precedent;
+                    }
+                }
+                case STRING -> {
+                    int longueur = (int) readVarLong(source);
+                    if (longueur == 0) {
+                        valeurs[i] = null;
+                    } else {
+                        byte[] utf8 = new byte[longueur - 1];
+                        source.get(utf8);
+                        valeurs[i] = new String(utf8, StandardCharsets.UTF_8);
+                    }
+                }
+                case INT_LIST -> {
+                    int taille = (int) readVarLong(source);
+                    List<Integer> liste = new ArrayList<>(taille);
+                    long dernier = 0;
+                    for (int j = 0; j < taille; j++) {
+                        dernier += unzigzag(readVarLong(source));
+                        liste.add((int) dernier);
+                    }
+                    valeurs[i] = liste;
+                }
+            }
+        }
+        return valeurs;
+    }
+
+    private static long zigzag(long valeur) {
+        return (valeur << 1) ^ (valeur >> 63);
+    }
+
+    private static long unzigzag(long valeur) {
+        return (valeur >>> 1) ^ -(valeur & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream sortie, long valeur) {
+        while ((valeur & ~0x7FL) != 0) {
+            sortie.write((int) ((valeur & 0x7F) | 0x80));
+            valeur >>>= 7;
+        }
+        sortie.write((int) valeur);
+    }
+
+    private static long readVarLong(ByteBuffer source) {
+        long valeur = 0;
+        int decalage = 0;
+        byte octet;
+        do {
+            octet = source.get();
+            valeur |= (long) (octet & 0x7F) << decalage;
+            decalage += 7;
+        } while ((octet & 0x80) != 0);
+        return valeur;
+    }
+}
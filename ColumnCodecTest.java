@@ -0,0 +1,73 @@
+package com.conference.api.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Aller-retour d'un groupe de lignes : les null restent null, y compris dans les colonnes entières
+class ColumnCodecTest {
+
+    @TempDir
+    Path repertoire;
+
+    @Test
+    void entiersNullablesConserves() {
+        Object[] valeurs = {5, null, 7, null, null, -3, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        assertThat(allerRetour(ArchiveTable.ColumnType.INT, valeurs)).containsExactly(valeurs);
+    }
+
+    @Test
+    void longsNullablesConserves() {
+        Object[] valeurs = {null, 1_700_000_000_000L, null, 0L, Long.MAX_VALUE, Long.MIN_VALUE, null};
+        assertThat(allerRetour(ArchiveTable.ColumnType.LONG, valeurs)).containsExactly(valeurs);
+    }
+
+    @Test
+    void chainesEtListesConservees() {
+        Object[] chaines = {null, "", "évaluation", null};
+        assertThat(allerRetour(ArchiveTable.ColumnType.STRING, chaines)).containsExactly(chaines);
+        Object[] listes = {List.of(), List.of(3, 1, 2), List.of(-4)};
+        assertThat(allerRetour(ArchiveTable.ColumnType.INT_LIST, listes)).containsExactly(listes);
+    }
+
+    @Test
+    void archiveRelueAvecSesNull() throws IOException {
+        Path fichier = repertoire.resolve("conference-1.arc");
+        try (ArchiveWriter writer = new ArchiveWriter(fichier, 2)) {
+            writer.write(ArchiveTable.EVALUATION, 10, 3, 5, 8, "Solide", "ACCEPTEE", 1_700_000_000_000L);
+            writer.write(ArchiveTable.EVALUATION, 11, 3, 6, 4, null, null, null);
+            writer.write(ArchiveTable.EVALUATION, 12, 4, 5, 9, "Clair", "REJETEE", 1_700_000_500_000L);
+            writer.write(ArchiveTable.CONFERENCE, 1, "Titre", null, 19_000L, 19_003L, "FERMEE", null);
+        }
+
+        List<Object[]> evaluations = new ArrayList<>();
+        List<Object[]> conferences = new ArrayList<>();
+        try (ArchiveReader reader = new ArchiveReader(fichier)) {
+            reader.forEach(ArchiveTable.EVALUATION, evaluations::add);
+            reader.forEach(ArchiveTable.CONFERENCE, conferences::add);
+        }
+
+        assertThat(evaluations).extracting(Arrays::asList).containsExactly(
+                Arrays.asList(10, 3, 5, 8, "Solide", "ACCEPTEE", 1_700_000_000_000L),
+                Arrays.asList(11, 3, 6, 4, null, null, null),
+                Arrays.asList(12, 4, 5, 9, "Clair", "REJETEE", 1_700_000_500_000L));
+        assertThat(conferences).extracting(Arrays::asList).containsExactly(
+                Arrays.asList(1, "Titre", null, 19_000L, 19_003L, "FERMEE", null));
+    }
+
+    private static Object[] allerRetour(ArchiveTable.ColumnType type, Object[] valeurs) {
+        ColumnCodec.Encoder encodeur = new ColumnCodec.Encoder(type);
+        for (Object valeur : valeurs) {
+            encodeur.add(valeur);
+        }
+        return ColumnCodec.decode(type, ByteBuffer.wrap(encodeur.compress()), encodeur.rawLength(), valeurs.length);
+    }
+}
@@ -0,0 +1,62 @@
+package com.conference.api.services;
+
+import com.conference.api.config.AdaptiveBulkhead;
+import com.conference.api.config.AdmissionControlFilter;
+import com.conference.api.config.AdmissionProperties;
+import com.conference.api.config.AdmissionProperties.EndpointClass;
+import com.conference.api.exceptions.TooManyRequestsException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Limite les opérations simultanées par conférence, pour qu'une conférence très sollicitée
+// n'épuise pas la cloison partagée au détriment des autres. Le plafond suit la limite courante
+// de la cloison SOUMISSION ; seules les conférences ayant des opérations en cours ont une entrée.
+@Service
+public class ConferenceAdmissionLimiter {
+
+    private final AdmissionProperties properties;
+    private final AdaptiveBulkhead cloison;
+    private final Map<Integer, Integer> enCours = new ConcurrentHashMap<>();
+
+    public ConferenceAdmissionLimiter(AdmissionProperties properties, AdmissionControlFilter admissionControlFilter) {
+        this.properties = properties;
+        this.cloison = admissionControlFilter.getBulkhead(EndpointClass.SOUMISSION);
+    }
+
+    // Exécuter l'opération si la conférence a encore de la capacité, sinon rejeter immédiatement
+    public <T> T withPermit(int conferenceId, Supplier<T> operation) {
+        if (!properties.isEnabled()) {
+            return operation.get();
+        }
+        int plafond = plafond(conferenceId);
+        boolean[] admis = new boolean[1];
+        enCours.compute(conferenceId, (id, courant) -> {
+            int nombre = courant == null ? 0 : courant;
+            if (nombre >= plafond) {
+                return courant;
+            }
+            admis[0] = true;
+            return nombre + 1;
+        });
+        if (!admis[0]) {
+            throw new TooManyRequestsException("Trop de requêtes simultanées pour la conférence " + conferenceId,
+                    properties.getRetryAfterSeconds());
+        }
+        try {
+            return operation.get();
+        } finally {
+            // L'entrée disparaît avec la dernière opération en cours
+            enCours.computeIfPresent(conferenceId, (id, courant) -> courant > 1 ? courant - 1 : null);
+        }
+    }
+
+    private int plafond(int conferenceId) {
+        int limite = cloison.getLimite();
+        Integer specifique = properties.getConferenceLimits().get(conferenceId);
+        int plafond = specifique != null ? specifique : (int) Math.ceil(limite * properties.getConferenceShare());
+        return Math.max(1, Math.min(plafond, limite));
+    }
+}
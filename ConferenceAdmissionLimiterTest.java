@@ -0,0 +1,77 @@
+package com.conference.api.services;
+
+import com.conference.api.config.AdmissionControlFilter;
+import com.conference.api.config.AdmissionProperties;
+import com.conference.api.config.AdmissionProperties.EndpointClass;
+import com.conference.api.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Le plafond d'une conférence suit la limite courante de la cloison SOUMISSION ; une conférence
+// saturée ne bloque pas les autres
+class ConferenceAdmissionLimiterTest {
+
+    private AdmissionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        AdmissionProperties.Bulkhead soumission = new AdmissionProperties.Bulkhead();
+        soumission.setMaxConcurrency(4);
+        properties.setBulkheads(Map.of(EndpointClass.SOUMISSION, soumission));
+    }
+
+    @Test
+    void conferenceSatureeRejeteeSansBloquerLesAutres() {
+        ConferenceAdmissionLimiter limiter = limiter();
+
+        // Part de 0,5 sur une limite de 4 : deux opérations simultanées par conférence
+        int autre = limiter.withPermit(7, () -> limiter.withPermit(7, () -> {
+            assertThatThrownBy(() -> limiter.withPermit(7, () -> 0))
+                    .isInstanceOf(TooManyRequestsException.class)
+                    .extracting(e -> ((TooManyRequestsException) e).getRetryAfterSeconds())
+                    .isEqualTo(properties.getRetryAfterSeconds());
+            return limiter.withPermit(8, () -> 8);
+        }));
+
+        assertThat(autre).isEqualTo(8);
+        assertThat(limiter.withPermit(7, () -> 7)).isEqualTo(7);
+    }
+
+    @Test
+    void plafondSpecifiqueBorneParLaLimiteDeLaCloison() {
+        properties.setConferenceLimits(Map.of(7, 10));
+        ConferenceAdmissionLimiter limiter = limiter();
+
+        int profondeur = imbriquer(limiter, 7, 0);
+
+        assertThat(profondeur).isEqualTo(4);
+    }
+
+    @Test
+    void controleDesactiveToutAdmet() {
+        properties.setEnabled(false);
+        properties.setConferenceLimits(Map.of(7, 1));
+        ConferenceAdmissionLimiter limiter = limiter();
+
+        assertThat(limiter.withPermit(7, () -> limiter.withPermit(7, () -> 2))).isEqualTo(2);
+    }
+
+    // Nombre d'opérations simultanées admises pour la conférence, en les imbriquant jusqu'au rejet
+    private static int imbriquer(ConferenceAdmissionLimiter limiter, int conferenceId, int profondeur) {
+        try {
+            return limiter.withPermit(conferenceId, () -> imbriquer(limiter, conferenceId, profondeur + 1));
+        } catch (TooManyRequestsException e) {
+            return profondeur;
+        }
+    }
+
+    private ConferenceAdmissionLimiter limiter() {
+        return new ConferenceAdmissionLimiter(properties, new AdmissionControlFilter(properties));
+    }
+}
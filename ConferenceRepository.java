@@ -4,10 +4,18 @@ import com.conference.api.entities.Conference;
 import com.conference.api.entities.ConferenceEtat;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface ConferenceRepository extends JpaRepository<Conference, Integer> {
     List<Conference> findByThematique(String thematique);
     List<Conference> findByEtat(@NotNull(message = "L'état de la conférence est obligatoire") ConferenceEtat etat);
+
+    // Conférences avec leur créateur et leurs soumissions chargés, lues sur chaque partition (fan-out)
+    @Query("SELECT DISTINCT c FROM Conference c LEFT JOIN FETCH c.createur LEFT JOIN FETCH c.soumissions")
+    List<Conference> findAllWithAssociations();
+
+    // Nombre de conférences créées par un utilisateur (suppression de l'utilisateur)
+    long countByCreateurId(int createurId);
 }
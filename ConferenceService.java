@@ -1,8 +1,13 @@
 package com.conference.api.services;
 
+import com.conference.api.audit.AuditEntityType;
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ShardRouter;
 import com.conference.api.dto.ConferenceDTO;
 import com.conference.api.entities.Conference;
 import com.conference.api.entities.ConferenceEtat;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
 import com.conference.api.entities.Role;
 import com.conference.api.entities.Soumission;
 import com.conference.api.entities.UserRole;
@@ -12,9 +17,12 @@ import com.conference.api.repositories.ConferenceRepository;
 import com.conference.api.repositories.UserRoleRepository;
 import com.conference.api.repositories.UtilisateurRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class ConferenceService {
@@ -22,98 +30,213 @@ public class ConferenceService {
     private final ConferenceRepository conferenceRepository;
     private final UtilisateurRepository utilisateurRepository;
     private final UserRoleRepository userRoleRepository;
-
-    public ConferenceService(ConferenceRepository conferenceRepository, UtilisateurRepository utilisateurRepository, UserRoleRepository userRoleRepository) {
+    private final CascadeDeleteService cascadeDeleteService;
+    private final AuditJournal auditJournal;
+    private final ArchiveService archiveService;
+    private final ShardRouter shardRouter;
+    private final DecisionService decisionService;
+    private final PendingOperationService pendingOperations;
+
+    public ConferenceService(ConferenceRepository conferenceRepository, UtilisateurRepository utilisateurRepository, UserRoleRepository userRoleRepository,
+                             CascadeDeleteService cascadeDeleteService, AuditJournal auditJournal, ArchiveService archiveService,
+                             ShardRouter shardRouter, DecisionService decisionService,
+                             PendingOperationService pendingOperations) {
         this.conferenceRepository = conferenceRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.userRoleRepository = userRoleRepository;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.auditJournal = auditJournal;
+        this.archiveService = archiveService;
+        this.shardRouter = shardRouter;
+        this.decisionService = decisionService;
+        this.pendingOperations = pendingOperations;
     }
 
-    // Récupérer toutes les conférences
+    // Récupérer toutes les conférences (hors suppressions en cours)
+    @Transactional(readOnly = true)
     public List<Conference> getAllConferences() {
-        return conferenceRepository.findAll();
+        return shardRouter.fanOut(conferenceRepository::findAllWithAssociations).stream()
+                .filter(conference -> !cascadeDeleteService.isConferenceDeleted(conference.getId()))
+                .collect(Collectors.toList());
     }
 
     // Récupérer une conférence par ID
+    @Transactional(readOnly = true)
     public Conference getConferenceById(int id) {
-        return conferenceRepository.findById(id)
+        return shardRouter.onEntity(id, () -> conferenceRepository.findById(id))
+                .filter(conference -> !cascadeDeleteService.isConferenceDeleted(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Conférence introuvable avec l'ID : " + id));
     }
 
     // Créer une nouvelle conférence
+    @Transactional
     public Conference saveConference(Conference conference) {
-        // Valider si le créateur est un éditeur
-        UserRole userRole = userRoleRepository.findByUtilisateurIdAndRole(conference.getCreateur().getId(), Role.EDITEUR)
-                .orElseThrow(() -> new IllegalArgumentException("Le créateur doit avoir un rôle d'éditeur."));
+        // Un créateur en cours de suppression ne peut plus créer de conférence
+        pendingOperations.verifierModifiable(Cible.UTILISATEUR, conference.getCreateur().getId());
+        return shardRouter.onNewConference(() -> {
+            if (shardRouter.getPartitions() > 1) {
+                return saveConferencePartitionnee(conference);
+            }
+            // Valider si le créateur est un éditeur
+            UserRole userRole = userRoleRepository.findByUtilisateurIdAndRole(conference.getCreateur().getId(), Role.EDITEUR)
+                    .orElseThrow(() -> new IllegalArgumentException("Le créateur doit avoir un rôle d'éditeur."));
+
+            // Sauvegarder la conférence
+            Conference savedConference = conferenceRepository.save(conference);
+
+            // Mettre à jour le rôle de l'utilisateur avec l'ID de la conférence
+            userRole.setConference(savedConference);
+            userRoleRepository.save(userRole);
+
+            return savedConference;
+        });
+    }
 
-        // Sauvegarder la conférence
+    // Le rôle d'éditeur global est une copie de la partition 0 : il n'est pas modifié ici, un rôle
+    // d'éditeur propre à la conférence est créé sur la partition de celle-ci
+    private Conference saveConferencePartitionnee(Conference conference) {
+        if (!userRoleRepository.existsByUtilisateurIdAndRoleAndConferenceIsNull(conference.getCreateur().getId(), Role.EDITEUR)) {
+            throw new IllegalArgumentException("Le créateur doit avoir un rôle d'éditeur.");
+        }
         Conference savedConference = conferenceRepository.save(conference);
 
-        // Mettre à jour le rôle de l'utilisateur avec l'ID de la conférence
-        userRole.setConference(savedConference);
-        userRoleRepository.save(userRole);
+        UserRole editeur = new UserRole();
+        editeur.setRole(Role.EDITEUR);
+        editeur.setUtilisateur(conference.getCreateur());
+        editeur.setConference(savedConference);
+        userRoleRepository.save(editeur);
 
         return savedConference;
     }
 
     // Créer une conférence à partir d'un DTO
+    @Transactional
     public Conference createConference(ConferenceDTO conferenceDTO) {
-        // Vérification que l'utilisateur existe
-        Utilisateur createur = utilisateurRepository.findById(conferenceDTO.getCreateurId())
-                .orElseThrow(() -> new ResourceNotFoundException("Créateur introuvable avec l'ID : " + conferenceDTO.getCreateurId()));
-
-        // Vérification que l'utilisateur a le rôle d'Éditeur
-        boolean estEditeur = createur.getUserRoles().stream()
-                .anyMatch(userRole -> userRole.getRole() == Role.EDITEUR);
-        if (!estEditeur) {
-            throw new IllegalArgumentException("Seuls les utilisateurs ayant le rôle d'Éditeur peuvent créer une conférence.");
-        }
-
-        // Création de la conférence
-        Conference conference = new Conference();
-        conference.setTitre(conferenceDTO.getTitre());
-        conference.setThematique(conferenceDTO.getThematique());
-        conference.setDateDebut(conferenceDTO.getDateDebut());
-        conference.setDateFin(conferenceDTO.getDateFin());
-        conference.setEtat(conferenceDTO.getEtat());
-        conference.setCreateur(createur);
-
-        validateDates(conference.getDateDebut(), conference.getDateFin());
-        return saveConference(conference);
+        return shardRouter.onNewConference(() -> {
+            // Vérification que l'utilisateur existe
+            Utilisateur createur = utilisateurRepository.findById(conferenceDTO.getCreateurId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Créateur introuvable avec l'ID : " + conferenceDTO.getCreateurId()));
+
+            // Vérification que l'utilisateur a le rôle d'Éditeur
+            boolean estEditeur = createur.getUserRoles().stream()
+                    .anyMatch(userRole -> userRole.getRole() == Role.EDITEUR);
+            if (!estEditeur) {
+                throw new IllegalArgumentException("Seuls les utilisateurs ayant le rôle d'Éditeur peuvent créer une conférence.");
+            }
+
+            // Création de la conférence
+            Conference conference = new Conference();
+            conference.setTitre(conferenceDTO.getTitre());
+            conference.setThematique(conferenceDTO.getThematique());
+            conference.setDateDebut(conferenceDTO.getDateDebut());
+            conference.setDateFin(conferenceDTO.getDateFin());
+            conference.setEtat(conferenceDTO.getEtat());
+            conference.setCreateur(createur);
+
+            validateDates(conference.getDateDebut(), conference.getDateFin());
+            return saveConference(conference);
+        });
     }
 
     // Mettre à jour une conférence
+    @Transactional
     public Conference updateConference(int id, Conference conferenceDetails) {
-        Conference conference = getConferenceById(id);
-
-        validateDates(conferenceDetails.getDateDebut(), conferenceDetails.getDateFin());
+        return shardRouter.onEntity(id, () -> {
+            Conference conference = getConferenceById(id);
+            pendingOperations.verifierModifiable(Cible.CONFERENCE, id);
+
+            validateDates(conferenceDetails.getDateDebut(), conferenceDetails.getDateFin());
+
+            ConferenceEtat ancienEtat = conference.getEtat();
+            conference.setTitre(conferenceDetails.getTitre());
+            conference.setThematique(conferenceDetails.getThematique());
+            conference.setDateDebut(conferenceDetails.getDateDebut());
+            conference.setDateFin(conferenceDetails.getDateFin());
+            conference.setEtat(conferenceDetails.getEtat());
+
+            Conference saved = conferenceRepository.save(conference);
+            auditJournal.recordIfChanged(AuditEntityType.CONFERENCE, id, ancienEtat, saved.getEtat());
+            return saved;
+        });
+    }
 
-        conference.setTitre(conferenceDetails.getTitre());
-        conference.setThematique(conferenceDetails.getThematique());
-        conference.setDateDebut(conferenceDetails.getDateDebut());
-        conference.setDateFin(conferenceDetails.getDateFin());
-        conference.setEtat(conferenceDetails.getEtat());
+    // Supprimer une conférence : masquée immédiatement, dépendances purgées en arrière-plan
+    public DeletionProgress deleteConference(int id) {
+        getConferenceById(id);
+        return cascadeDeleteService.scheduleConferenceDeletion(id);
+    }
 
-        return conferenceRepository.save(conference);
+    // Clôturer la revue : accepter ou rejeter en arrière-plan les soumissions encore en revue.
+    // Le marqueur DECISION refuse une conférence en cours de suppression, d'archivage ou archivée,
+    // et bloque ces opérations ainsi que les changements d'état jusqu'à la fin du calcul.
+    public DecisionProgress decideSoumissions(int conferenceId) {
+        getConferenceById(conferenceId);
+        DecisionProgress enCours = decisionService.getProgress(conferenceId);
+        if (enCours != null && enCours.estActif()) {
+            return enCours;
+        }
+        if (archiveService.isArchived(conferenceId)) {
+            throw new IllegalArgumentException("La conférence " + conferenceId + " est archivée.");
+        }
+        pendingOperations.acquerir(Cible.CONFERENCE, conferenceId, Type.DECISION);
+        try {
+            // Relu après la pose du marqueur : l'état ne peut plus changer avant la fin du calcul
+            ConferenceEtat etat = getConferenceById(conferenceId).getEtat();
+            if (etat != ConferenceEtat.EN_REVUE) {
+                throw new IllegalArgumentException("La conférence " + conferenceId + " n'est pas en revue (état : "
+                        + etat + ") : les décisions ne peuvent plus être prises.");
+            }
+            return decisionService.scheduleDecisions(conferenceId);
+        } catch (RuntimeException e) {
+            pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.DECISION);
+            throw e;
+        }
     }
 
-    // Supprimer une conférence
-    public void deleteConference(int id) {
-        Conference conference = getConferenceById(id);
-        conferenceRepository.delete(conference);
+    // Avancement du dernier calcul de décisions d'une conférence
+    public DecisionProgress getDecisionProgress(int conferenceId) {
+        DecisionProgress progress = decisionService.getProgress(conferenceId);
+        if (progress == null) {
+            throw new ResourceNotFoundException("Aucune décision demandée pour la conférence : " + conferenceId);
+        }
+        return progress;
     }
 
     // Changer l'état d'une conférence
+    @Transactional
     public Conference changeConferenceState(int conferenceId, ConferenceEtat newState) {
-        Conference conference = getConferenceById(conferenceId);
-        conference.setEtat(newState);
-        return conferenceRepository.save(conference);
+        return shardRouter.onEntity(conferenceId, () -> {
+            Conference conference = getConferenceById(conferenceId);
+            pendingOperations.verifierModifiable(Cible.CONFERENCE, conferenceId);
+            ConferenceEtat ancienEtat = conference.getEtat();
+            conference.setEtat(newState);
+            Conference saved = conferenceRepository.save(conference);
+            auditJournal.recordIfChanged(AuditEntityType.CONFERENCE, conferenceId, ancienEtat, newState);
+            return saved;
+        });
     }
 
     // Récupérer les soumissions associées à une conférence
+    @Transactional(readOnly = true)
     public List<Soumission> getSoumissionsByConferenceId(int conferenceId) {
-        Conference conference = getConferenceById(conferenceId);
-        return conference.getSoumissions();
+        if (archiveService.isArchived(conferenceId)) {
+            getConferenceById(conferenceId);
+            return archiveService.getSoumissions(conferenceId);
+        }
+        // Chargement forcé dans le contexte de la partition de la conférence
+        return shardRouter.onEntity(conferenceId, () -> new ArrayList<>(getConferenceById(conferenceId).getSoumissions()));
+    }
+
+    // Archiver une conférence fermée et retirer son graphe des tables actives
+    public DeletionProgress archiveConference(int conferenceId) {
+        getConferenceById(conferenceId);
+        return archiveService.archiveConference(conferenceId);
+    }
+
+    // Réintégrer une conférence archivée
+    public void restoreConference(int conferenceId) {
+        getConferenceById(conferenceId);
+        archiveService.restoreConference(conferenceId);
     }
 
     // Validation des dates
@@ -0,0 +1,76 @@
+package com.conference.api.services;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Avancement du calcul des décisions d'une conférence exécuté en arrière-plan
+@Getter
+public class DecisionProgress {
+
+    public enum Statut { EN_ATTENTE, EN_COURS, TERMINEE, ECHEC }
+
+    private final int conferenceId;
+    private final Instant demandeeLe = Instant.now();
+    private volatile Statut statut = Statut.EN_ATTENTE;
+    private volatile Instant debut;
+    private volatile Instant fin;
+    private volatile String erreur;
+    private volatile int soumissions;
+    private final AtomicLong evaluationsLues = new AtomicLong();
+    private final AtomicInteger acceptees = new AtomicInteger();
+    private final AtomicInteger rejetees = new AtomicInteger();
+    private final AtomicInteger indecises = new AtomicInteger();
+    private final AtomicInteger lots = new AtomicInteger();
+
+    public DecisionProgress(int conferenceId) {
+        this.conferenceId = conferenceId;
+    }
+
+    void demarrer(int soumissions) {
+        this.soumissions = soumissions;
+        debut = Instant.now();
+        statut = Statut.EN_COURS;
+    }
+
+    void evaluationLue() {
+        evaluationsLues.incrementAndGet();
+    }
+
+    void indecises(int nombre) {
+        indecises.addAndGet(nombre);
+    }
+
+    void lotApplique(boolean accepte, int lignes) {
+        (accepte ? acceptees : rejetees).addAndGet(lignes);
+        lots.incrementAndGet();
+    }
+
+    void terminer() {
+        fin = Instant.now();
+        statut = Statut.TERMINEE;
+    }
+
+    void echouer(Exception e) {
+        fin = Instant.now();
+        erreur = e.getMessage();
+        statut = Statut.ECHEC;
+    }
+
+    boolean estActif() {
+        return statut == Statut.EN_ATTENTE || statut == Statut.EN_COURS;
+    }
+
+    // Débit observé en soumissions décidées par seconde
+    public double getSoumissionsParSeconde() {
+        if (debut == null) {
+            return 0;
+        }
+        long decidees = acceptees.get() + rejetees.get();
+        long millis = Duration.between(debut, fin != null ? fin : Instant.now()).toMillis();
+        return millis == 0 ? decidees : decidees * 1000.0 / millis;
+    }
+}
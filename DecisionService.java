@@ -0,0 +1,204 @@
+package com.conference.api.services;
+
+import com.conference.api.audit.AuditEntityType;
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ReadWriteRoutingDataSource;
+import com.conference.api.config.ShardRouter;
+import com.conference.api.entities.EvaluationEtat;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
+import com.conference.api.entities.SoumissionEtat;
+import com.conference.api.repositories.EvaluationRepository;
+import com.conference.api.repositories.SoumissionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Clôture de la phase de revue d'une conférence, en arrière-plan :
+// les notes sont lues en flux, les décisions calculées en parallèle par soumission,
+// puis appliquées par UPDATE groupés, chaque lot dans sa propre transaction courte.
+// Le marqueur DECISION, posé par l'appelant, est retiré à la fin du calcul : il écarte
+// pendant ce temps suppression, archivage et changement d'état de la conférence.
+// L'avancement d'un calcul terminé reste consultable pendant app.decision.retention.
+@Service
+public class DecisionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionService.class);
+
+    private final SoumissionRepository soumissionRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final AuditJournal auditJournal;
+    private final ShardRouter shardRouter;
+    private final PendingOperationService pendingOperations;
+    private final TransactionTemplate lectureSeule;
+    private final TransactionTemplate ecriture;
+    private final double moyenneMinimale;
+    private final int evaluationsMinimales;
+    private final int tailleLot;
+    private final Duration retention;
+
+    private final Map<Integer, DecisionProgress> avancements = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "decision");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DecisionService(SoumissionRepository soumissionRepository,
+                           EvaluationRepository evaluationRepository,
+                           AuditJournal auditJournal,
+                           ShardRouter shardRouter,
+                           PendingOperationService pendingOperations,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.decision.min-average:6.0}") double moyenneMinimale,
+                           @Value("${app.decision.min-evaluations:2}") int evaluationsMinimales,
+                           @Value("${app.decision.chunk-size:1000}") int tailleLot,
+                           @Value("${app.decision.retention:PT1H}") Duration retention) {
+        this.soumissionRepository = soumissionRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.auditJournal = auditJournal;
+        this.shardRouter = shardRouter;
+        this.pendingOperations = pendingOperations;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.ecriture = new TransactionTemplate(transactionManager);
+        this.moyenneMinimale = moyenneMinimale;
+        this.evaluationsMinimales = evaluationsMinimales;
+        this.tailleLot = tailleLot;
+        this.retention = retention;
+    }
+
+    // Planifier le calcul des décisions ; une demande en cours pour la même conférence est réutilisée
+    public DecisionProgress scheduleDecisions(int conferenceId) {
+        oublierTermines();
+        return avancements.compute(conferenceId, (id, existant) -> {
+            if (existant != null && existant.estActif()) {
+                return existant;
+            }
+            DecisionProgress progress = new DecisionProgress(conferenceId);
+            executor.submit(ReadWriteRoutingDataSource.isoler(() -> executer(progress)));
+            return progress;
+        });
+    }
+
+    // Avancement de la dernière demande de décisions pour une conférence
+    public DecisionProgress getProgress(int conferenceId) {
+        oublierTermines();
+        return avancements.get(conferenceId);
+    }
+
+    // Retirer les avancements terminés depuis plus que la durée de rétention
+    private void oublierTermines() {
+        Instant limite = Instant.now().minus(retention);
+        avancements.values().removeIf(progress -> !progress.estActif() && !progress.getFin().isAfter(limite));
+    }
+
+    private void executer(DecisionProgress progress) {
+        int conferenceId = progress.getConferenceId();
+        try {
+            shardRouter.onEntity(conferenceId, () -> decider(progress, conferenceId));
+            progress.terminer();
+            log.info("Décisions de la conférence {} : {} acceptées, {} rejetées, {} indécises sur {} soumissions ({} soumissions/s)",
+                    conferenceId, progress.getAcceptees(), progress.getRejetees(), progress.getIndecises(),
+                    progress.getSoumissions(), Math.round(progress.getSoumissionsParSeconde()));
+        } catch (Exception e) {
+            progress.echouer(e);
+            log.error("Échec du calcul des décisions de la conférence {}", conferenceId, e);
+        } finally {
+            pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.DECISION);
+        }
+    }
+
+    // Un calcul de cette instance interrompu par un arrêt n'est pas repris : son marqueur est retiré, la demande
+    // peut être renouvelée (les lots déjà appliqués ne sont pas rejoués, leurs soumissions ont quitté EN_REVUE).
+    // Les marqueurs posés par une autre instance sont laissés : elle exécute peut-être encore le calcul
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendre() {
+        for (int conferenceId : pendingOperations.enCoursSurCetteInstance(Cible.CONFERENCE, Type.DECISION)) {
+            if (getProgress(conferenceId) == null) {
+                pendingOperations.liberer(Cible.CONFERENCE, conferenceId, Type.DECISION);
+                log.warn("Décisions de la conférence {} interrompues : à redemander", conferenceId);
+            }
+        }
+    }
+
+    private void decider(DecisionProgress progress, int conferenceId) {
+        List<Integer> candidates = lectureSeule.execute(status ->
+                soumissionRepository.findIdsByConferenceIdAndEtat(conferenceId, SoumissionEtat.EN_REVUE));
+        progress.demarrer(candidates.size());
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, int[]> notes = lectureSeule.execute(status -> cumulerNotes(progress, conferenceId));
+
+        // Chaque soumission est décidée indépendamment des autres
+        Map<SoumissionEtat, List<Integer>> decisions = candidates.parallelStream()
+                .collect(Collectors.groupingByConcurrent(id -> decision(notes.get(id))));
+
+        progress.indecises(decisions.getOrDefault(SoumissionEtat.EN_REVUE, List.of()).size());
+        appliquer(progress, decisions.getOrDefault(SoumissionEtat.ACCEPTEE, List.of()), SoumissionEtat.ACCEPTEE);
+        appliquer(progress, decisions.getOrDefault(SoumissionEtat.REJETEE, List.of()), SoumissionEtat.REJETEE);
+    }
+
+    // Nombre de notes et somme des notes par soumission ; les évaluations en révision ne comptent pas
+    private Map<Integer, int[]> cumulerNotes(DecisionProgress progress, int conferenceId) {
+        Map<Integer, int[]> notes = new HashMap<>();
+        try (Stream<Object[]> lignes = evaluationRepository.streamNotesByConferenceId(conferenceId, EvaluationEtat.EN_REVISION)) {
+            lignes.forEach(ligne -> {
+                int[] cumul = notes.computeIfAbsent(((Number) ligne[0]).intValue(), id -> new int[2]);
+                cumul[0]++;
+                cumul[1] += ((Number) ligne[1]).intValue();
+                progress.evaluationLue();
+            });
+        }
+        return notes;
+    }
+
+    // Sous le nombre minimal d'évaluations, la soumission reste en revue
+    private SoumissionEtat decision(int[] cumul) {
+        if (cumul == null || cumul[0] < evaluationsMinimales) {
+            return SoumissionEtat.EN_REVUE;
+        }
+        double moyenne = (double) cumul[1] / cumul[0];
+        return moyenne >= moyenneMinimale ? SoumissionEtat.ACCEPTEE : SoumissionEtat.REJETEE;
+    }
+
+    // Seules les soumissions encore en revue au moment du lot changent d'état et sont journalisées
+    private void appliquer(DecisionProgress progress, List<Integer> ids, SoumissionEtat etat) {
+        for (int debut = 0; debut < ids.size(); debut += tailleLot) {
+            List<Integer> lot = ids.subList(debut, Math.min(debut + tailleLot, ids.size()));
+            List<Integer> modifiees = ecriture.execute(status -> {
+                List<Integer> enRevue = soumissionRepository.lockIdsByIdInAndEtat(lot, SoumissionEtat.EN_REVUE);
+                if (!enRevue.isEmpty()) {
+                    soumissionRepository.updateEtatByIdIn(enRevue, SoumissionEtat.EN_REVUE, etat);
+                }
+                return enRevue;
+            });
+            modifiees.forEach(id -> auditJournal.record(AuditEntityType.SOUMISSION, id, SoumissionEtat.EN_REVUE, etat));
+            progress.lotApplique(etat == SoumissionEtat.ACCEPTEE, modifiees.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,93 @@
+package com.conference.api.services;
+
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ShardRouter;
+import com.conference.api.config.ShardingProperties;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
+import com.conference.api.entities.SoumissionEtat;
+import com.conference.api.repositories.EvaluationRepository;
+import com.conference.api.repositories.SoumissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// L'avancement d'un calcul terminé est oublié après la rétention ; au redémarrage, seuls les marqueurs
+// de cette instance sont retirés
+@ExtendWith(MockitoExtension.class)
+class DecisionServiceTest {
+
+    @Mock
+    private SoumissionRepository soumissionRepository;
+    @Mock
+    private EvaluationRepository evaluationRepository;
+    @Mock
+    private AuditJournal auditJournal;
+    @Mock
+    private PendingOperationService pendingOperations;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DecisionService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void avancementTermineOublieApresLaRetention() throws InterruptedException {
+        service = service(Duration.ZERO);
+        DecisionProgress progress = decisionsSansCandidate();
+
+        assertThat(service.getProgress(5)).isNull();
+        verify(pendingOperations, timeout(5000)).liberer(Cible.CONFERENCE, 5, Type.DECISION);
+        assertThat(progress.getStatut()).isEqualTo(DecisionProgress.Statut.TERMINEE);
+    }
+
+    @Test
+    void avancementTermineConserveDurantLaRetention() throws InterruptedException {
+        service = service(Duration.ofHours(1));
+        DecisionProgress progress = decisionsSansCandidate();
+
+        assertThat(service.getProgress(5)).isSameAs(progress);
+    }
+
+    @Test
+    void repriseNeLibereQueLesMarqueursDeCetteInstance() {
+        service = service(Duration.ofHours(1));
+        when(pendingOperations.enCoursSurCetteInstance(Cible.CONFERENCE, Type.DECISION)).thenReturn(List.of(3));
+
+        service.reprendre();
+
+        verify(pendingOperations).liberer(Cible.CONFERENCE, 3, Type.DECISION);
+        verify(pendingOperations, never()).enCours(Cible.CONFERENCE, Type.DECISION);
+    }
+
+    private DecisionProgress decisionsSansCandidate() throws InterruptedException {
+        when(soumissionRepository.findIdsByConferenceIdAndEtat(5, SoumissionEtat.EN_REVUE)).thenReturn(List.of());
+        DecisionProgress progress = service.scheduleDecisions(5);
+        for (int i = 0; i < 500 && progress.estActif(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(progress.estActif()).isFalse();
+        return progress;
+    }
+
+    private DecisionService service(Duration retention) {
+        return new DecisionService(soumissionRepository, evaluationRepository, auditJournal,
+                new ShardRouter(new ShardingProperties()), pendingOperations, transactionManager, 6.0, 2, 1000, retention);
+    }
+}
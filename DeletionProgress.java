@@ -0,0 +1,60 @@
+package com.conference.api.services;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Avancement d'une suppression en cascade exécutée en arrière-plan
+@Getter
+public class DeletionProgress {
+
+    public enum Statut { EN_ATTENTE, EN_COURS, TERMINEE, ECHEC }
+
+    private final String type;
+    private final int entityId;
+    private final Instant demandeeLe = Instant.now();
+    private volatile Statut statut = Statut.EN_ATTENTE;
+    private volatile Instant debut;
+    private volatile Instant fin;
+    private volatile String erreur;
+    private final AtomicLong lignesSupprimees = new AtomicLong();
+    private final AtomicInteger lots = new AtomicInteger();
+
+    public DeletionProgress(String type, int entityId) {
+        this.type = type;
+        this.entityId = entityId;
+    }
+
+    void demarrer() {
+        debut = Instant.now();
+        statut = Statut.EN_COURS;
+    }
+
+    void lotTermine(int lignes) {
+        lignesSupprimees.addAndGet(lignes);
+        lots.incrementAndGet();
+    }
+
+    void terminer() {
+        fin = Instant.now();
+        statut = Statut.TERMINEE;
+    }
+
+    void echouer(Exception e) {
+        fin = Instant.now();
+        erreur = e.getMessage();
+        statut = Statut.ECHEC;
+    }
+
+    // Débit observé en lignes supprimées par seconde
+    public double getLignesParSeconde() {
+        if (debut == null) {
+            return 0;
+        }
+        long millis = Duration.between(debut, fin != null ? fin : Instant.now()).toMillis();
+        return millis == 0 ? lignesSupprimees.get() : lignesSupprimees.get() * 1000.0 / millis;
+    }
+}
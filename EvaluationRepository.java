@@ -1,15 +1,55 @@
 package com.conference.api.repositories;
 
 import com.conference.api.entities.EvaluationEtat;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.conference.api.entities.Evaluation;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface EvaluationRepository extends JpaRepository<Evaluation, Integer> {
     List<Evaluation> findByEtat(@NotNull(message = "L'état de l'évaluation est obligatoire") EvaluationEtat etat);
 
     List<Evaluation> findByEvaluateurId(int evaluateurId);
-}
 
+    // Évaluations avec leur soumission et leur évaluateur chargés, lues sur chaque partition (fan-out)
+    @Query("SELECT e FROM Evaluation e LEFT JOIN FETCH e.soumission LEFT JOIN FETCH e.evaluateur")
+    List<Evaluation> findAllWithAssociations();
+
+    // IDs des évaluations d'un évaluateur, par lot (suppression en cascade)
+    @Query("SELECT e.id FROM Evaluation e WHERE e.evaluateur.id = :evaluateurId ORDER BY e.id")
+    List<Integer> findIdsByEvaluateurId(@Param("evaluateurId") int evaluateurId, Pageable pageable);
+
+    // Parcours en flux des évaluations d'une conférence (archivage)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Evaluation e WHERE e.soumission.conference.id = :conferenceId ORDER BY e.id")
+    Stream<Evaluation> streamByConferenceId(@Param("conferenceId") int conferenceId);
+
+    // Nombre d'évaluations d'une conférence (contrôle de l'archivage)
+    @Query("SELECT COUNT(e) FROM Evaluation e WHERE e.soumission.conference.id = :conferenceId")
+    long countByConferenceId(@Param("conferenceId") int conferenceId);
+
+    // Parcours en flux des couples (soumission, note) d'une conférence, hors évaluations dans un état exclu (décisions)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.soumission.id, e.note FROM Evaluation e WHERE e.soumission.conference.id = :conferenceId AND e.etat <> :exclu")
+    Stream<Object[]> streamNotesByConferenceId(@Param("conferenceId") int conferenceId, @Param("exclu") EvaluationEtat exclu);
+
+    // Suppression groupée des évaluations d'un lot de soumissions
+    @Modifying
+    @Query("DELETE FROM Evaluation e WHERE e.soumission.id IN :soumissionIds")
+    int deleteBySoumissionIdIn(@Param("soumissionIds") List<Integer> soumissionIds);
+
+    // Suppression groupée d'un lot d'évaluations
+    @Modifying
+    @Query("DELETE FROM Evaluation e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Integer> ids);
+}
@@ -1,7 +1,11 @@
 package com.conference.api.services;
 
+import com.conference.api.audit.AuditEntityType;
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ShardRouter;
 import com.conference.api.entities.Evaluation;
 import com.conference.api.entities.EvaluationEtat;
+import com.conference.api.entities.PendingOperation.Cible;
 import com.conference.api.entities.Soumission;
 import com.conference.api.entities.Utilisateur;
 import com.conference.api.exceptions.ResourceNotFoundException;
@@ -9,6 +13,7 @@ import com.conference.api.repositories.EvaluationRepository;
 import com.conference.api.repositories.SoumissionRepository;
 import com.conference.api.repositories.UtilisateurRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
@@ -19,77 +24,134 @@ public class EvaluationService {
     private final EvaluationRepository evaluationRepository;
     private final SoumissionRepository soumissionRepository;
     private final UtilisateurRepository utilisateurRepository;
+    private final AuditJournal auditJournal;
+    private final IdempotencyService idempotencyService;
+    private final ShardRouter shardRouter;
+    private final PendingOperationService pendingOperations;
 
     // Injection via constructeur
     public EvaluationService(EvaluationRepository evaluationRepository,
                              SoumissionRepository soumissionRepository,
-                             UtilisateurRepository utilisateurRepository) {
+                             UtilisateurRepository utilisateurRepository,
+                             AuditJournal auditJournal,
+                             IdempotencyService idempotencyService,
+                             ShardRouter shardRouter,
+                             PendingOperationService pendingOperations) {
         this.evaluationRepository = evaluationRepository;
         this.soumissionRepository = soumissionRepository;
         this.utilisateurRepository = utilisateurRepository;
+        this.auditJournal = auditJournal;
+        this.idempotencyService = idempotencyService;
+        this.shardRouter = shardRouter;
+        this.pendingOperations = pendingOperations;
     }
 
     // Récupérer toutes les évaluations
+    @Transactional(readOnly = true)
     public List<Evaluation> getAllEvaluations() {
-        return evaluationRepository.findAll();
+        return shardRouter.fanOut(evaluationRepository::findAllWithAssociations);
     }
 
     // Récupérer une évaluation par ID
+    @Transactional(readOnly = true)
     public Evaluation getEvaluationById(int id) {
-        return evaluationRepository.findById(id)
+        return shardRouter.onEntity(id, () -> evaluationRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Évaluation introuvable avec l'ID " + id));
     }
 
-    // Créer une évaluation avec validation
-    public Evaluation createEvaluation(Evaluation evaluation) {
-        // Valider la soumission
-        Soumission soumission = soumissionRepository.findById(evaluation.getSoumission().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Soumission introuvable avec l'ID " + evaluation.getSoumission().getId()));
-
-        // Valider l'évaluateur
-        Utilisateur evaluateur = utilisateurRepository.findById(evaluation.getEvaluateur().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Évaluateur introuvable avec l'ID " + evaluation.getEvaluateur().getId()));
-
-        // Vérifier si l'évaluateur est co-auteur
-        if (soumission.estCoAuteur(evaluateur)) {
-            throw new IllegalArgumentException("Un évaluateur ne peut pas évaluer une soumission dont il est co-auteur.");
-        }
-
-        // Valider l'évaluation
-        validateEvaluation(evaluation);
-
-        // Compléter les informations
-        evaluation.setDateEvaluation(new Date());
-        evaluation.setSoumission(soumission);
-        evaluation.setEvaluateur(evaluateur);
+    // Créer une évaluation une seule fois par Idempotency-Key. Pas de transaction ici : IdempotencyService
+    // exécute la création dans sa propre transaction et ne publie l'identifiant qu'après son commit
+    public Evaluation createEvaluation(Evaluation evaluation, String idempotencyKey) {
+        byte[] empreinte = IdempotencyService.empreinte(evaluation.getSoumission().getId(), evaluation.getEvaluateur().getId(),
+                evaluation.getNote(), evaluation.getCommentaires(), evaluation.getEtat());
+        // Seul l'identifiant est conservé ; une relecture recharge l'évaluation
+        return idempotencyService.execute("evaluation", idempotencyKey, empreinte, () -> createEvaluation(evaluation),
+                Evaluation::getId, this::getEvaluationById);
+    }
 
-        return evaluationRepository.save(evaluation);
+    // Créer une évaluation avec validation, sur la partition de sa soumission
+    @Transactional
+    public Evaluation createEvaluation(Evaluation evaluation) {
+        return shardRouter.onEntity(evaluation.getSoumission().getId(), () -> {
+            // Valider la soumission
+            Soumission soumission = soumissionRepository.findById(evaluation.getSoumission().getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Soumission introuvable avec l'ID " + evaluation.getSoumission().getId()));
+
+            // Valider l'évaluateur
+            Utilisateur evaluateur = utilisateurRepository.findById(evaluation.getEvaluateur().getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Évaluateur introuvable avec l'ID " + evaluation.getEvaluateur().getId()));
+
+            // Refuser l'écriture sous une conférence ou un évaluateur en cours de suppression
+            pendingOperations.verifierModifiable(Cible.CONFERENCE, soumission.getConference().getId());
+            pendingOperations.verifierModifiable(Cible.UTILISATEUR, evaluateur.getId());
+
+            // Vérifier si l'évaluateur est co-auteur
+            if (soumission.estCoAuteur(evaluateur)) {
+                throw new IllegalArgumentException("Un évaluateur ne peut pas évaluer une soumission dont il est co-auteur.");
+            }
+
+            // Valider l'évaluation
+            validateEvaluation(evaluation);
+
+            // Compléter les informations
+            evaluation.setDateEvaluation(new Date());
+            evaluation.setSoumission(soumission);
+            evaluation.setEvaluateur(evaluateur);
+
+            Evaluation saved = evaluationRepository.save(evaluation);
+            auditJournal.record(AuditEntityType.EVALUATION, saved.getId(), null, saved.getEtat());
+            return saved;
+        });
     }
 
     // Mettre à jour une évaluation
+    @Transactional
     public Evaluation updateEvaluation(int id, Evaluation evaluationDetails) {
-        Evaluation existingEvaluation = getEvaluationById(id);
+        return shardRouter.onEntity(id, () -> {
+            Evaluation existingEvaluation = getEvaluationById(id);
+            verifierModifiable(existingEvaluation);
+            EvaluationEtat ancienEtat = existingEvaluation.getEtat();
 
-        existingEvaluation.setNote(evaluationDetails.getNote());
-        existingEvaluation.setCommentaires(evaluationDetails.getCommentaires());
-        existingEvaluation.setEtat(evaluationDetails.getEtat());
+            existingEvaluation.setNote(evaluationDetails.getNote());
+            existingEvaluation.setCommentaires(evaluationDetails.getCommentaires());
+            existingEvaluation.setEtat(evaluationDetails.getEtat());
 
-        validateEvaluation(existingEvaluation);
+            validateEvaluation(existingEvaluation);
 
-        return evaluationRepository.save(existingEvaluation);
+            Evaluation saved = evaluationRepository.save(existingEvaluation);
+            auditJournal.recordIfChanged(AuditEntityType.EVALUATION, id, ancienEtat, saved.getEtat());
+            return saved;
+        });
     }
 
     // Supprimer une évaluation par ID
+    @Transactional
     public void deleteEvaluation(int id) {
-        Evaluation evaluation = getEvaluationById(id);
-        evaluationRepository.delete(evaluation);
+        shardRouter.onEntity(id, () -> {
+            Evaluation evaluation = getEvaluationById(id);
+            verifierModifiable(evaluation);
+            evaluationRepository.delete(evaluation);
+        });
     }
 
     // Changer l'état d'une évaluation
+    @Transactional
     public Evaluation changeEvaluationState(int evaluationId, EvaluationEtat newState) {
-        Evaluation evaluation = getEvaluationById(evaluationId);
-        evaluation.setEtat(newState);
-        return evaluationRepository.save(evaluation);
+        return shardRouter.onEntity(evaluationId, () -> {
+            Evaluation evaluation = getEvaluationById(evaluationId);
+            verifierModifiable(evaluation);
+            EvaluationEtat ancienEtat = evaluation.getEtat();
+            evaluation.setEtat(newState);
+            Evaluation saved = evaluationRepository.save(evaluation);
+            auditJournal.recordIfChanged(AuditEntityType.EVALUATION, evaluationId, ancienEtat, newState);
+            return saved;
+        });
+    }
+
+    // Refuser l'écriture sous une conférence ou un évaluateur marqué (suppression, archivage, décisions)
+    private void verifierModifiable(Evaluation evaluation) {
+        pendingOperations.verifierModifiable(Cible.CONFERENCE, evaluation.getSoumission().getConference().getId());
+        pendingOperations.verifierModifiable(Cible.UTILISATEUR, evaluation.getEvaluateur().getId());
     }
 
     // Valider une évaluation
@@ -0,0 +1,101 @@
+package com.conference.api.services;
+
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ShardRouter;
+import com.conference.api.config.ShardingProperties;
+import com.conference.api.entities.Conference;
+import com.conference.api.entities.Evaluation;
+import com.conference.api.entities.EvaluationEtat;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.Soumission;
+import com.conference.api.entities.Utilisateur;
+import com.conference.api.repositories.EvaluationRepository;
+import com.conference.api.repositories.SoumissionRepository;
+import com.conference.api.repositories.UtilisateurRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Les écritures sur une évaluation sont refusées sous une conférence ou un évaluateur marqué
+@ExtendWith(MockitoExtension.class)
+class EvaluationServiceTest {
+
+    @Mock
+    private EvaluationRepository evaluationRepository;
+    @Mock
+    private SoumissionRepository soumissionRepository;
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+    @Mock
+    private AuditJournal auditJournal;
+    @Mock
+    private IdempotencyService idempotencyService;
+    @Mock
+    private PendingOperationService pendingOperations;
+
+    private EvaluationService service;
+    private Evaluation evaluation;
+
+    @BeforeEach
+    void setUp() {
+        service = new EvaluationService(evaluationRepository, soumissionRepository, utilisateurRepository,
+                auditJournal, idempotencyService, new ShardRouter(new ShardingProperties()), pendingOperations);
+
+        Conference conference = new Conference();
+        conference.setId(7);
+        Soumission soumission = new Soumission();
+        soumission.setId(3);
+        soumission.setConference(conference);
+        Utilisateur evaluateur = new Utilisateur();
+        evaluateur.setId(5);
+        evaluation = new Evaluation();
+        evaluation.setId(11);
+        evaluation.setSoumission(soumission);
+        evaluation.setEvaluateur(evaluateur);
+        evaluation.setNote(8);
+        evaluation.setCommentaires("Solide");
+        evaluation.setEtat(EvaluationEtat.EN_REVISION);
+        when(evaluationRepository.findById(11)).thenReturn(Optional.of(evaluation));
+    }
+
+    @Test
+    void updateEvaluationRefuseSousUneConferenceMarquee() {
+        doThrow(new IllegalArgumentException("Conférence 7 : archivage en cours."))
+                .when(pendingOperations).verifierModifiable(Cible.CONFERENCE, 7);
+
+        assertThatThrownBy(() -> service.updateEvaluation(11, evaluation))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(evaluationRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteEvaluationRefuseSousUnEvaluateurEnSuppression() {
+        doThrow(new IllegalArgumentException("Utilisateur 5 : suppression en cours."))
+                .when(pendingOperations).verifierModifiable(Cible.UTILISATEUR, 5);
+
+        assertThatThrownBy(() -> service.deleteEvaluation(11))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(evaluationRepository, never()).delete(any());
+    }
+
+    @Test
+    void changeEvaluationStateRefuseSousUneConferenceMarquee() {
+        doThrow(new IllegalArgumentException("Conférence 7 : décisions de revue en cours."))
+                .when(pendingOperations).verifierModifiable(Cible.CONFERENCE, 7);
+
+        assertThatThrownBy(() -> service.changeEvaluationState(11, EvaluationEtat.ACCEPTEE))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(evaluationRepository, never()).save(any());
+    }
+}
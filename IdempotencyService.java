@@ -0,0 +1,171 @@
+package com.conference.api.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Déduplication des créations rejouées avec le même en-tête Idempotency-Key.
+// Chaque clé conserve l'empreinte SHA-256 de la requête et un instantané du résultat (son identifiant),
+// pendant une durée limitée et dans un stock borné ; une relecture restitue la ressource à partir de
+// l'instantané, sans garder d'entité détachée. Les doublons concurrents attendent l'exécution en cours.
+// L'opération s'exécute dans sa propre transaction : le résultat n'est publié qu'une fois celle-ci
+// validée, si bien qu'un doublon relit toujours une ressource visible ; une transaction annulée libère la clé.
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final long ttlMillis;
+    private final int capacite;
+    private final TransactionTemplate transaction;
+    private final Map<String, Entree> entrees = new LinkedHashMap<>();
+
+    public IdempotencyService(@Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${app.idempotency.max-keys:100000}") int capacite,
+                              PlatformTransactionManager transactionManager) {
+        this.ttlMillis = ttl.toMillis();
+        this.capacite = capacite;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Exécuter l'opération une seule fois par clé ; sans clé, l'opération est exécutée normalement,
+    // dans sa transaction. instantane extrait ce qui est conservé du résultat, restituer reconstruit
+    // le résultat d'une relecture
+    @SuppressWarnings("unchecked")
+    public <T, S> T execute(String portee, String cle, byte[] empreinte, Supplier<T> operation,
+                            Function<T, S> instantane, Function<S, T> restituer) {
+        if (cle == null || cle.isBlank()) {
+            return transaction.execute(status -> operation.get());
+        }
+        String identifiant = portee + ":" + cle;
+        Entree nouvelle = new Entree(empreinte);
+        Entree existante;
+        synchronized (entrees) {
+            long maintenant = System.currentTimeMillis();
+            purger(maintenant);
+            existante = entrees.get(identifiant);
+            if (existante != null && existante.expireA < maintenant) {
+                existante = null;
+            }
+            if (existante == null) {
+                entrees.put(identifiant, nouvelle);
+            }
+        }
+
+        if (existante != null) {
+            if (!MessageDigest.isEqual(existante.empreinte, nouvelle.empreinte)) {
+                throw new IllegalArgumentException("La clé " + HEADER + " a déjà été utilisée pour une requête différente.");
+            }
+            try {
+                return restituer.apply((S) existante.resultat.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T resultat = executerEtValider(operation);
+            synchronized (entrees) {
+                nouvelle.expireA = System.currentTimeMillis() + ttlMillis;
+            }
+            nouvelle.resultat.complete(instantane.apply(resultat));
+            return resultat;
+        } catch (RuntimeException e) {
+            // Un échec n'est pas mémorisé : une nouvelle tentative pourra s'exécuter
+            synchronized (entrees) {
+                entrees.remove(identifiant, nouvelle);
+            }
+            nouvelle.resultat.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Exécuter l'opération dans une transaction qui doit être validée avant toute publication du résultat
+    private <T> T executerEtValider(Supplier<T> operation) {
+        boolean[] validee = new boolean[1];
+        T resultat = transaction.execute(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int statut) {
+                    validee[0] = statut == STATUS_COMMITTED;
+                }
+            });
+            return operation.get();
+        });
+        if (!validee[0]) {
+            throw new IllegalStateException("La création n'a pas été validée ; la clé " + HEADER + " est libérée.");
+        }
+        return resultat;
+    }
+
+    // Empreinte SHA-256 d'une forme canonique des champs de la requête : chaque valeur est typée et
+    // préfixée de sa longueur, les collections de leur taille, si bien que deux requêtes différentes
+    // ne peuvent pas produire la même suite d'octets
+    public static byte[] empreinte(Object... champs) {
+        StringBuilder canonique = new StringBuilder();
+        for (Object champ : champs) {
+            canoniser(canonique, champ);
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(canonique.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static void canoniser(StringBuilder canonique, Object valeur) {
+        if (valeur == null) {
+            canonique.append('N');
+        } else if (valeur instanceof Collection<?> elements) {
+            canonique.append('L').append(elements.size()).append(':');
+            elements.forEach(element -> canoniser(canonique, element));
+        } else {
+            String texte = valeur instanceof Enum<?> constante ? constante.name() : valeur.toString();
+            canonique.append(valeur instanceof Number ? 'D' : valeur instanceof Enum<?> ? 'E' : 'S')
+                    .append(texte.length()).append(':').append(texte);
+        }
+    }
+
+    // Retirer les clés expirées puis, au-delà de la capacité, les plus anciennes déjà terminées
+    private void purger(long maintenant) {
+        Iterator<Entree> iterateur = entrees.values().iterator();
+        while (iterateur.hasNext()) {
+            Entree entree = iterateur.next();
+            if (entree.expireA < maintenant || (entrees.size() >= capacite && entree.resultat.isDone())) {
+                iterateur.remove();
+            } else if (entrees.size() < capacite) {
+                return;
+            }
+        }
+    }
+
+    private static final class Entree {
+        private final byte[] empreinte;
+        // Instantané du résultat, jamais l'entité elle-même
+        private final CompletableFuture<Object> resultat = new CompletableFuture<>();
+        // Une exécution en cours n'expire pas
+        private long expireA = Long.MAX_VALUE;
+
+        private Entree(byte[] empreinte) {
+            this.empreinte = empreinte;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.conference.api.services;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Une clé n'est honorée qu'avec une création validée : un doublon ne relit jamais une ligne non commitée
+class IdempotencyServiceTest {
+
+    private static final byte[] EMPREINTE = IdempotencyService.empreinte("titre", 1);
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private IdempotencyService service;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:idempotency-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE ressource (id INT PRIMARY KEY)");
+        service = new IdempotencyService(Duration.ofHours(1), 100, new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void doublonConcurrentRelitUneCreationValidee() throws Exception {
+        CountDownLatch enCours = new CountDownLatch(1);
+        CountDownLatch relacher = new CountDownLatch(1);
+        CompletableFuture<Integer> premier = CompletableFuture.supplyAsync(() -> creer("cle", () -> {
+            int id = inserer();
+            enCours.countDown();
+            attendre(relacher);
+            return id;
+        }));
+        assertThat(enCours.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> doublon = CompletableFuture.supplyAsync(() -> creer("cle", this::inserer));
+        relacher.countDown();
+
+        assertThat(premier.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(doublon.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void creationEnEchecLibereLaCle() {
+        assertThatThrownBy(() -> creer("cle", () -> {
+            inserer();
+            throw new IllegalArgumentException("invalide");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(creer("cle", this::inserer)).isEqualTo(1);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void commitImpossibleLibereLaCle() {
+        assertThatThrownBy(() -> creer("cle", () -> {
+            int id = inserer();
+            ((ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource)).setRollbackOnly();
+            return id;
+        })).isInstanceOf(UnexpectedRollbackException.class);
+
+        assertThat(creer("cle", this::inserer)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM ressource", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void sansCleLaCreationSExecuteDansUneTransaction() {
+        assertThat(service.execute("ressource", null, EMPREINTE,
+                TransactionSynchronizationManager::isActualTransactionActive, actif -> actif, actif -> actif)).isTrue();
+    }
+
+    // La relecture compte les lignes visibles hors transaction
+    private int creer(String cle, Supplier<Integer> operation) {
+        return service.execute("ressource", cle, EMPREINTE, operation, id -> id,
+                id -> jdbc.queryForObject("SELECT COUNT(*) FROM ressource WHERE id = ?", Integer.class, id));
+    }
+
+    private int inserer() {
+        int id = 1;
+        executions.incrementAndGet();
+        jdbc.update("INSERT INTO ressource (id) VALUES (?)", id);
+        return id;
+    }
+
+    private static void attendre(CountDownLatch verrou) {
+        try {
+            assertThat(verrou.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.conference.api.tools;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Injecteur de charge : rejoue un mélange pondéré de requêtes contre l'API et rapporte
+// le débit et les percentiles de latence par opération. Toute réponse hors 2xx compte comme
+// une erreur ; les erreurs sont détaillées par code de statut (« io » pour un échec réseau).
+//
+// Usage : java -cp target/classes com.conference.api.tools.LoadDriver \
+//   --url http://localhost:8080 --mix scripts/load-mix.txt --pool target/load-pool.txt --threads 32 --duration 60 \
+//   [--seed 42] [--token <jeton Bearer>] [--api-docs /v3/api-docs | none]
+//
+// Format du mélange : une opération par ligne, « poids MÉTHODE chemin [corps JSON] ».
+// Les marqueurs {groupe} et {groupe.champ} sont remplacés par une ligne de la réserve écrite par
+// SyntheticDataGenerator ({groupe} désigne le premier champ) ; tous les marqueurs d'un même groupe
+// reprennent la même ligne dans une requête. Chaque groupe est parcouru dans un ordre mélangé, sans
+// remise tant qu'il n'est pas épuisé. Avant la charge, chaque route du mélange est vérifiée contre
+// la documentation OpenAPI de l'application.
+public final class LoadDriver {
+
+    private static final Pattern MARQUEUR = Pattern.compile("\\{([a-z]+)(?:\\.([a-z]+))?}");
+    private static final Pattern PARAMETRE = Pattern.compile("\\{[^/}]*}");
+    private static final List<String> METHODES = List.of("get", "put", "post", "delete", "patch", "head", "options");
+
+    record Operation(String libelle, int poids, String methode, String chemin, String corps) {
+    }
+
+    // Lignes d'un groupe de la réserve, dans un ordre mélangé une fois pour toutes
+    record Groupe(List<String> champs, String[][] lignes, AtomicLong curseur) {
+
+        String[] suivante() {
+            return lignes[(int) (curseur.getAndIncrement() % lignes.length)];
+        }
+    }
+
+    // Statut conventionnel d'une requête sans réponse HTTP (délai, connexion refusée...)
+    private static final int ECHEC_RESEAU = -1;
+
+    private static final class Mesures {
+        private long[] latences = new long[1024];
+        private int taille;
+        private int erreurs;
+        private final Map<Integer, Integer> erreursParStatut = new TreeMap<>();
+
+        void ajouter(long nanos, int statut) {
+            ajouterLatence(nanos);
+            if (statut < 200 || statut >= 300) {
+                erreurs++;
+                erreursParStatut.merge(statut, 1, Integer::sum);
+            }
+        }
+
+        void fusionner(Mesures autre) {
+            for (int i = 0; i < autre.taille; i++) {
+                ajouterLatence(autre.latences[i]);
+            }
+            erreurs += autre.erreurs;
+            autre.erreursParStatut.forEach((statut, nombre) -> erreursParStatut.merge(statut, nombre, Integer::sum));
+        }
+
+        private void ajouterLatence(long nanos) {
+            if (taille == latences.length) {
+                latences = Arrays.copyOf(latences, taille * 2);
+            }
+            latences[taille++] = nanos;
+        }
+    }
+
+    private LoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long duree = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "60")));
+        long graine = Long.parseLong(options.getOrDefault("seed", "42"));
+        String jeton = options.get("token");
+        String apiDocs = options.getOrDefault("api-docs", "/v3/api-docs");
+        List<Operation> melange = lireMelange(Path.of(options.getOrDefault("mix", "scripts/load-mix.txt")));
+        Map<String, Groupe> reserve = lireReserve(Path.of(options.getOrDefault("pool", "target/load-pool.txt")), graine);
+        verifierMarqueurs(melange, reserve);
+        int poidsTotal = melange.stream().mapToInt(Operation::poids).sum();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(threads))
+                .build();
+        if (!"none".equals(apiDocs)) {
+            verifierRoutes(melange, documentation(client, url + apiDocs, jeton));
+        }
+        List<Map<String, Mesures>> resultats = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long debut = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Map<String, Mesures> mesures = new LinkedHashMap<>();
+            resultats.add(mesures);
+            SplittableRandom random = new SplittableRandom(graine + t);
+            pool.submit(() -> {
+                while (System.nanoTime() - debut < duree) {
+                    Operation operation = tirer(melange, poidsTotal, random);
+                    HttpRequest requete = construire(url, operation, reserve, jeton);
+                    long depart = System.nanoTime();
+                    int statut;
+                    try {
+                        statut = client.send(requete, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        statut = ECHEC_RESEAU;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    mesures.computeIfAbsent(operation.libelle(), k -> new Mesures()).ajouter(System.nanoTime() - depart, statut);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(duree + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        rapport(melange, resultats, secondes);
+        System.exit(0);
+    }
+
+    private static Operation tirer(List<Operation> melange, int poidsTotal, SplittableRandom random) {
+        int tirage = random.nextInt(poidsTotal);
+        for (Operation operation : melange) {
+            tirage -= operation.poids();
+            if (tirage < 0) {
+                return operation;
+            }
+        }
+        return melange.get(melange.size() - 1);
+    }
+
+    private static HttpRequest construire(String url, Operation operation, Map<String, Groupe> reserve, String jeton) {
+        Map<String, String[]> tirages = new HashMap<>();
+        String chemin = remplacer(operation.chemin(), reserve, tirages);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + chemin)).timeout(Duration.ofSeconds(30));
+        if (jeton != null) {
+            builder.header("Authorization", "Bearer " + jeton);
+        }
+        if (operation.corps() == null) {
+            return builder.method(operation.methode(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(operation.methode(), HttpRequest.BodyPublishers.ofString(remplacer(operation.corps(), reserve, tirages)))
+                .build();
+    }
+
+    // Remplacer les marqueurs ; tirages garde la ligne retenue pour chaque groupe de la requête
+    static String remplacer(String modele, Map<String, Groupe> reserve, Map<String, String[]> tirages) {
+        Matcher marqueur = MARQUEUR.matcher(modele);
+        StringBuilder resultat = new StringBuilder();
+        while (marqueur.find()) {
+            Groupe groupe = reserve.get(marqueur.group(1));
+            String[] ligne = tirages.computeIfAbsent(marqueur.group(1), nom -> groupe.suivante());
+            int champ = marqueur.group(2) == null ? 0 : groupe.champs().indexOf(marqueur.group(2));
+            marqueur.appendReplacement(resultat, Matcher.quoteReplacement(ligne[champ]));
+        }
+        return marqueur.appendTail(resultat).toString();
+    }
+
+    // Réserve écrite par SyntheticDataGenerator : « @groupe champs... » puis « groupe valeurs... »
+    static Map<String, Groupe> lireReserve(Path fichier, long graine) throws IOException {
+        Map<String, List<String>> champs = new LinkedHashMap<>();
+        Map<String, List<String[]>> lignes = new HashMap<>();
+        for (String ligne : Files.readAllLines(fichier)) {
+            String[] valeurs = ligne.strip().split("\\s+");
+            if (valeurs[0].isEmpty()) {
+                continue;
+            }
+            if (valeurs[0].startsWith("@")) {
+                champs.put(valeurs[0].substring(1), List.of(valeurs).subList(1, valeurs.length));
+            } else if (!champs.containsKey(valeurs[0]) || champs.get(valeurs[0]).size() != valeurs.length - 1) {
+                throw new IllegalArgumentException("Ligne de réserve invalide : " + ligne);
+            } else {
+                lignes.computeIfAbsent(valeurs[0], nom -> new ArrayList<>()).add(Arrays.copyOfRange(valeurs, 1, valeurs.length));
+            }
+        }
+        SplittableRandom random = new SplittableRandom(graine);
+        Map<String, Groupe> reserve = new LinkedHashMap<>();
+        champs.forEach((nom, noms) -> {
+            String[][] melangees = lignes.getOrDefault(nom, List.of()).toArray(String[][]::new);
+            for (int i = melangees.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                String[] echange = melangees[i];
+                melangees[i] = melangees[j];
+                melangees[j] = echange;
+            }
+            reserve.put(nom, new Groupe(noms, melangees, new AtomicLong()));
+        });
+        return reserve;
+    }
+
+    // Refuser un marqueur sans groupe, sans champ ou sans ligne dans la réserve
+    static void verifierMarqueurs(List<Operation> melange, Map<String, Groupe> reserve) {
+        for (Operation operation : melange) {
+            Matcher marqueur = MARQUEUR.matcher(operation.chemin() + (operation.corps() == null ? "" : operation.corps()));
+            while (marqueur.find()) {
+                Groupe groupe = reserve.get(marqueur.group(1));
+                if (groupe == null || groupe.lignes().length == 0
+                        || (marqueur.group(2) != null && !groupe.champs().contains(marqueur.group(2)))) {
+                    throw new IllegalArgumentException("Marqueur " + marqueur.group() + " absent de la réserve : "
+                            + operation.libelle());
+                }
+            }
+        }
+    }
+
+    private static String documentation(HttpClient client, String url, String jeton) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60));
+        if (jeton != null) {
+            builder.header("Authorization", "Bearer " + jeton);
+        }
+        HttpResponse<String> reponse = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (reponse.statusCode() != 200) {
+            throw new IllegalStateException("Documentation OpenAPI indisponible (" + reponse.statusCode() + ") : " + url
+                    + " ; --api-docs none désactive la vérification des routes");
+        }
+        return reponse.body();
+    }
+
+    // Refuser une opération dont la route n'est pas documentée par l'application
+    static void verifierRoutes(List<Operation> melange, String documentation) {
+        List<String> routes = routesDocumentees(documentation);
+        List<String> inconnues = melange.stream()
+                .filter(operation -> routes.stream().noneMatch(route -> correspond(route, operation)))
+                .map(Operation::libelle)
+                .toList();
+        if (!inconnues.isEmpty()) {
+            throw new IllegalArgumentException("Routes absentes de la documentation OpenAPI : " + inconnues
+                    + "\nRoutes documentées : " + routes);
+        }
+    }
+
+    // Routes « MÉTHODE chemin » de l'objet paths d'une documentation OpenAPI
+    static List<String> routesDocumentees(String documentation) {
+        int paths = documentation.indexOf("\"paths\"");
+        if (paths < 0) {
+            throw new IllegalArgumentException("Documentation OpenAPI sans « paths »");
+        }
+        List<String> routes = new ArrayList<>();
+        cles(documentation, documentation.indexOf('{', paths)).forEach((chemin, position) ->
+                cles(documentation, position).keySet().stream()
+                        .filter(METHODES::contains)
+                        .forEach(methode -> routes.add(methode.toUpperCase() + " " + chemin)));
+        return routes;
+    }
+
+    // Une route documentée couvre l'opération segment par segment ; un paramètre de chemin accepte tout segment
+    private static boolean correspond(String route, Operation operation) {
+        String[] documentee = route.split(" ", 2);
+        if (!documentee[0].equals(operation.methode())) {
+            return false;
+        }
+        String[] attendus = documentee[1].split("/", -1);
+        String[] segments = operation.chemin().replaceFirst("\\?.*", "").split("/", -1);
+        if (attendus.length != segments.length) {
+            return false;
+        }
+        for (int i = 0; i < attendus.length; i++) {
+            if (!PARAMETRE.matcher(attendus[i]).matches() && !attendus[i].equals(segments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Clés de l'objet JSON ouvert à la position ouverture, avec la position de leur valeur
+    private static Map<String, Integer> cles(String json, int ouverture) {
+        Map<String, Integer> cles = new LinkedHashMap<>();
+        int profondeur = 0;
+        for (int i = ouverture; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                int fin = i + 1;
+                while (json.charAt(fin) != '"') {
+                    fin += json.charAt(fin) == '\\' ? 2 : 1;
+                }
+                int suite = blancs(json, fin + 1);
+                if (profondeur == 1 && json.charAt(suite) == ':') {
+                    cles.put(json.substring(i + 1, fin), blancs(json, suite + 1));
+                }
+                i = fin;
+            } else if (c == '{' || c == '[') {
+                profondeur++;
+            } else if ((c == '}' || c == ']') && --profondeur == 0) {
+                break;
+            }
+        }
+        return cles;
+    }
+
+    private static int blancs(String json, int position) {
+        while (Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static void rapport(List<Operation> melange, List<Map<String, Mesures>> resultats, double secondes) {
+        System.out.printf("%-40s %9s %8s %9s %9s %9s %9s %9s%n", "opération", "requêtes", "erreurs", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "max ms");
+        Mesures total = new Mesures();
+        for (Operation operation : melange) {
+            Mesures fusion = new Mesures();
+            resultats.forEach(mesures -> {
+                Mesures partielle = mesures.get(operation.libelle());
+                if (partielle != null) {
+                    fusion.fusionner(partielle);
+                }
+            });
+            total.fusionner(fusion);
+            ligne(operation.libelle(), fusion, secondes);
+        }
+        ligne("TOTAL", total, secondes);
+    }
+
+    private static void ligne(String libelle, Mesures mesures, double secondes) {
+        long[] tries = Arrays.copyOf(mesures.latences, mesures.taille);
+        Arrays.sort(tries);
+        System.out.printf("%-40s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", libelle, mesures.taille, mesures.erreurs,
+                mesures.taille / secondes, centile(tries, 0.50), centile(tries, 0.90), centile(tries, 0.99),
+                centile(tries, 1.0));
+        if (!mesures.erreursParStatut.isEmpty()) {
+            System.out.printf("%-40s %s%n", "  erreurs par statut", mesures.erreursParStatut.entrySet().stream()
+                    .map(e -> (e.getKey() == ECHEC_RESEAU ? "io" : String.valueOf(e.getKey())) + "=" + e.getValue())
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static double centile(long[] tries, double rang) {
+        if (tries.length == 0) {
+            return 0;
+        }
+        int index = Math.min(tries.length - 1, (int) Math.ceil(rang * tries.length) - 1);
+        return tries[Math.max(0, index)] / 1e6;
+    }
+
+    static List<Operation> lireMelange(Path fichier) throws IOException {
+        List<Operation> melange = new ArrayList<>();
+        for (String ligne : Files.readAllLines(fichier)) {
+            ligne = ligne.strip();
+            if (ligne.isEmpty() || ligne.startsWith("#")) {
+                continue;
+            }
+            String[] champs = ligne.split("\\s+", 4);
+            melange.add(new Operation(champs[1] + " " + champs[2], Integer.parseInt(champs[0]), champs[1], champs[2],
+                    champs.length == 4 ? champs[3] : null));
+        }
+        if (melange.isEmpty()) {
+            throw new IllegalArgumentException("Mélange vide : " + fichier);
+        }
+        return melange;
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
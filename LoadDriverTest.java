@@ -0,0 +1,97 @@
+package com.conference.api.tools;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Les écritures reprennent des lignes cohérentes de la réserve ; une route non documentée arrête l'injecteur
+class LoadDriverTest {
+
+    private static final String DOCUMENTATION = """
+            {"openapi":"3.0.1","paths":{
+              "/api/soumissions/{id}":{"get":{"responses":{"200":{"description":"OK"}}}},
+              "/api/soumissions":{"post":{"requestBody":{"content":{"application/json":{"schema":{"get":"x"}}}}}},
+              "/api/evaluations/{id}/etat":{"put":{"parameters":[{"name":"newState","in":"query"}]}}
+            },"components":{"schemas":{}}}
+            """;
+
+    @TempDir
+    Path repertoire;
+
+    private Map<String, LoadDriver.Groupe> reserve;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        reserve = LoadDriver.lireReserve(Files.writeString(repertoire.resolve("load-pool.txt"), """
+                @conference id
+                conference 4
+                conference 9
+                @auteur conference utilisateur
+                auteur 4 40
+                auteur 9 90
+                auteur 4 41
+                """), 42);
+    }
+
+    @Test
+    void lesMarqueursDUnGroupeReprennentLaMemeLigne() {
+        for (int i = 0; i < 6; i++) {
+            String corps = LoadDriver.remplacer("{\"conferenceId\":{auteur.conference},\"auteurId\":{auteur.utilisateur}}",
+                    reserve, new HashMap<>());
+            assertThat(corps).isIn("{\"conferenceId\":4,\"auteurId\":40}", "{\"conferenceId\":9,\"auteurId\":90}",
+                    "{\"conferenceId\":4,\"auteurId\":41}");
+        }
+    }
+
+    @Test
+    void chaqueLigneEstTireeUneFoisAvantDeRecommencer() {
+        Set<String> tirages = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            tirages.add(LoadDriver.remplacer("{auteur}/{auteur.utilisateur}", reserve, new HashMap<>()));
+        }
+        assertThat(tirages).containsExactlyInAnyOrder("4/40", "9/90", "4/41");
+    }
+
+    @Test
+    void marqueurAbsentDeLaReserveRefuse() throws IOException {
+        List<LoadDriver.Operation> melange = melange("1 GET /api/soumissions/{soumission}");
+        assertThatThrownBy(() -> LoadDriver.verifierMarqueurs(melange, reserve))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{soumission}");
+    }
+
+    @Test
+    void routesCompareesAuxCheminsDocumentes() throws IOException {
+        assertThat(LoadDriver.routesDocumentees(DOCUMENTATION))
+                .containsExactly("GET /api/soumissions/{id}", "POST /api/soumissions", "PUT /api/evaluations/{id}/etat");
+
+        LoadDriver.verifierRoutes(melange("""
+                5 GET /api/soumissions/{auteur.conference}
+                1 POST /api/soumissions {"titreArticle":"x"}
+                1 PUT /api/evaluations/{conference}/etat?newState=ACCEPTEE
+                """), DOCUMENTATION);
+        assertThatThrownBy(() -> LoadDriver.verifierRoutes(melange("""
+                5 GET /api/soumissions/conference/{conference}
+                1 DELETE /api/soumissions/{conference}
+                """), DOCUMENTATION))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("GET /api/soumissions/conference/{conference}")
+                .hasMessageContaining("DELETE /api/soumissions/{conference}");
+    }
+
+    private List<LoadDriver.Operation> melange(String lignes) throws IOException {
+        return LoadDriver.lireMelange(Files.writeString(repertoire.resolve("load-mix.txt"), lignes));
+    }
+}
@@ -0,0 +1,22 @@
+package com.conference.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Identifiants de connexion")
+public class LoginDTO {
+
+    @NotNull(message = "L'email est obligatoire")
+    @Email(message = "Le format de l'email est invalide")
+    @Schema(description = "Adresse email de l'utilisateur", example = "jean.dupont@example.com")
+    private String email;
+
+    @NotNull(message = "Le mot de passe est obligatoire")
+    @Schema(description = "Mot de passe de l'utilisateur", example = "motdepasse")
+    private String password;
+}
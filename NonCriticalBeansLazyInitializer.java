@@ -0,0 +1,55 @@
+package com.conference.api.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Rend paresseuse l'initialisation des beans non critiques (documentation Swagger, etc.)
+// afin qu'ils ne soient créés qu'au premier usage plutôt qu'au démarrage
+@Component
+public class NonCriticalBeansLazyInitializer implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String PROPRIETE = "app.startup.lazy-bean-prefixes";
+    private static final String PAR_DEFAUT = "com.conference.api.config.SwaggerConfig,org.springdoc.";
+
+    private List<String> prefixes = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        prefixes = List.of(environment.getProperty(PROPRIETE, PAR_DEFAUT).split("\\s*,\\s*"));
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String nom : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(nom);
+            if (estNonCritique(beanFactory, definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    // Un bean est non critique si sa classe, ou la classe de configuration qui le déclare, correspond
+    private boolean estNonCritique(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String classe = definition.getBeanClassName();
+        if (classe == null && definition.getFactoryBeanName() != null
+                && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+            classe = beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+        }
+        if (classe == null) {
+            return false;
+        }
+        for (String prefixe : prefixes) {
+            if (!prefixe.isEmpty() && classe.startsWith(prefixe)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.conference.api.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Seuls les beans dont la classe, ou la configuration qui les déclare, correspond à un préfixe
+// deviennent paresseux
+class NonCriticalBeansLazyInitializerTest {
+
+    @Test
+    void beansNonCritiquesRendusParesseux() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("documentation",
+                BeanDefinitionBuilder.genericBeanDefinition("org.springdoc.core.SpringDocConfiguration").getBeanDefinition());
+        beanFactory.registerBeanDefinition("swaggerConfig",
+                BeanDefinitionBuilder.genericBeanDefinition("com.conference.api.config.SwaggerConfig").getBeanDefinition());
+        beanFactory.registerBeanDefinition("openApi", BeanDefinitionBuilder.genericBeanDefinition()
+                .setFactoryMethodOnBean("customOpenAPI", "swaggerConfig").getBeanDefinition());
+        beanFactory.registerBeanDefinition("shardRouter",
+                BeanDefinitionBuilder.genericBeanDefinition(ShardRouter.class).getBeanDefinition());
+
+        initialiseur(new MockEnvironment()).postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("documentation").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("swaggerConfig").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("openApi").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("shardRouter").isLazyInit()).isFalse();
+    }
+
+    @Test
+    void prefixesConfigurables() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("documentation",
+                BeanDefinitionBuilder.genericBeanDefinition("org.springdoc.core.SpringDocConfiguration").getBeanDefinition());
+        beanFactory.registerBeanDefinition("shardRouter",
+                BeanDefinitionBuilder.genericBeanDefinition(ShardRouter.class).getBeanDefinition());
+
+        initialiseur(new MockEnvironment().withProperty("app.startup.lazy-bean-prefixes", "com.conference.api.config.Shard"))
+                .postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("documentation").isLazyInit()).isFalse();
+        assertThat(beanFactory.getBeanDefinition("shardRouter").isLazyInit()).isTrue();
+    }
+
+    private static NonCriticalBeansLazyInitializer initialiseur(MockEnvironment environment) {
+        NonCriticalBeansLazyInitializer initialiseur = new NonCriticalBeansLazyInitializer();
+        initialiseur.setEnvironment(environment);
+        return initialiseur;
+    }
+}
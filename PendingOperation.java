@@ -0,0 +1,87 @@
+package com.conference.api.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Opération longue en cours sur une conférence ou un utilisateur (marqueur de suppression, etc.).
+// Persistée pour survivre aux redémarrages et être vue de toutes les instances ;
+// la clé primaire garantit au plus une opération à la fois par entité.
+@Entity
+@Table(name = "pending_operation")
+@Getter
+@NoArgsConstructor
+public class PendingOperation implements Persistable<String> {
+
+    public enum Cible { CONFERENCE, UTILISATEUR }
+
+    // ARCHIVAGE : export en cours ; PURGE : archive écrite, graphe retiré des tables actives ; ARCHIVEE : graphe
+    // servi depuis l'archive ; RESTAURATION : réimport en cours ; DECISION : décisions de revue en cours d'application
+    public enum Type { SUPPRESSION, ARCHIVAGE, PURGE, ARCHIVEE, RESTAURATION, DECISION }
+
+    @Id
+    @Column(name = "cle", length = 64)
+    private String cle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "cible", nullable = false, length = 16)
+    private Cible cible;
+
+    @Column(name = "entity_id", nullable = false)
+    private int entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "demandee_le", nullable = false)
+    private Instant demandeeLe;
+
+    // Instance qui a posé le marqueur (app.node-id) ; null pour un marqueur antérieur à son enregistrement
+    @Column(name = "proprietaire", length = 64)
+    private String proprietaire;
+
+    // Toujours inséré (jamais fusionné) : une opération concurrente fait échouer l'insertion
+    @Transient
+    private boolean nouveau = true;
+
+    public PendingOperation(Cible cible, int entityId, Type type, String proprietaire) {
+        this.cle = cle(cible, entityId);
+        this.cible = cible;
+        this.entityId = entityId;
+        this.type = type;
+        this.demandeeLe = Instant.now();
+        this.proprietaire = proprietaire;
+    }
+
+    public static String cle(Cible cible, int entityId) {
+        return cible.name().toLowerCase() + ":" + entityId;
+    }
+
+    @Override
+    public String getId() {
+        return cle;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nouveau;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marquerExistant() {
+        nouveau = false;
+    }
+}
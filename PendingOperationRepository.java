@@ -0,0 +1,29 @@
+package com.conference.api.repositories;
+
+import com.conference.api.entities.PendingOperation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PendingOperationRepository extends JpaRepository<PendingOperation, String> {
+
+    // Opérations d'un type donné sur une cible (reprise au démarrage)
+    List<PendingOperation> findByCibleAndType(PendingOperation.Cible cible, PendingOperation.Type type);
+
+    // Opérations d'un type donné posées par une instance, ou avant l'enregistrement du propriétaire
+    @Query("SELECT p FROM PendingOperation p WHERE p.cible = :cible AND p.type = :type "
+            + "AND (p.proprietaire = :proprietaire OR p.proprietaire IS NULL)")
+    List<PendingOperation> findByCibleAndTypeOwnedBy(@Param("cible") PendingOperation.Cible cible,
+                                                     @Param("type") PendingOperation.Type type,
+                                                     @Param("proprietaire") String proprietaire);
+
+    // Changement de type conditionnel, atomique (transition d'une opération à la suivante)
+    @Modifying
+    @Query("UPDATE PendingOperation p SET p.type = :nouveau WHERE p.cle = :cle AND p.type = :attendu")
+    int updateType(@Param("cle") String cle,
+                   @Param("attendu") PendingOperation.Type attendu,
+                   @Param("nouveau") PendingOperation.Type nouveau);
+}
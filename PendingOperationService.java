@@ -0,0 +1,178 @@
+package com.conference.api.services;
+
+import com.conference.api.config.ShardRouter;
+import com.conference.api.entities.PendingOperation;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
+import com.conference.api.exceptions.ResourceNotFoundException;
+import com.conference.api.repositories.PendingOperationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Marqueurs persistés des opérations longues (suppression en cascade, ...).
+// Les écritures passent par une transaction indépendante sur la partition 0 ; les lectures
+// des chemins de lecture utilisent un instantané rafraîchi périodiquement, celles des chemins
+// d'écriture relisent la base pour ne jamais accepter une écriture sous un parent marqué.
+// Chaque marqueur garde l'instance qui l'a posé (app.node-id, par défaut le nom d'hôte, stable d'un
+// redémarrage à l'autre) : une opération propre à une instance n'est reprise que par elle.
+@Service
+public class PendingOperationService {
+
+    private final PendingOperationRepository repository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final long rafraichissementNanos;
+    private final String noeud;
+
+    private volatile Map<String, Type> instantane = Map.of();
+    private volatile long chargeLe;
+
+    public PendingOperationService(PendingOperationRepository repository,
+                                   ShardRouter shardRouter,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.pending-operations.refresh:PT2S}") Duration rafraichissement,
+                                   @Value("${app.node-id:}") String noeud) {
+        this.repository = repository;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rafraichissementNanos = rafraichissement.toNanos();
+        this.chargeLe = System.nanoTime() - rafraichissementNanos;
+        this.noeud = noeud.isBlank() ? nomDHote() : noeud;
+    }
+
+    // Enregistrer une opération ; refusée si une autre est déjà en cours pour la même entité
+    public void acquerir(Cible cible, int entityId, Type type) {
+        try {
+            surReference(() -> repository.saveAndFlush(new PendingOperation(cible, entityId, type, noeud)));
+        } catch (DataIntegrityViolationException e) {
+            Type enCours = lire(cible, entityId).orElse(type);
+            throw new IllegalArgumentException(libelle(cible, entityId) + " : " + description(enCours) + ".");
+        }
+        appliquer(PendingOperation.cle(cible, entityId), type);
+    }
+
+    // Retirer le marqueur s'il correspond toujours au type attendu
+    public void liberer(Cible cible, int entityId, Type type) {
+        String cle = PendingOperation.cle(cible, entityId);
+        surReference(() -> {
+            repository.findById(cle)
+                    .filter(operation -> operation.getType() == type)
+                    .ifPresent(repository::delete);
+            return null;
+        });
+        appliquer(cle, null);
+    }
+
+    // Faire passer le marqueur d'un type au suivant ; false s'il ne porte plus le type attendu
+    public boolean changer(Cible cible, int entityId, Type attendu, Type nouveau) {
+        String cle = PendingOperation.cle(cible, entityId);
+        Integer lignes = surReference(() -> repository.updateType(cle, attendu, nouveau));
+        boolean change = lignes != null && lignes == 1;
+        if (change) {
+            appliquer(cle, nouveau);
+        }
+        return change;
+    }
+
+    // Lecture fraîche du marqueur d'une entité
+    public Optional<Type> lire(Cible cible, int entityId) {
+        return surReference(() -> repository.findById(PendingOperation.cle(cible, entityId)).map(PendingOperation::getType));
+    }
+
+    // Identifiants des entités portant un marqueur donné (lecture fraîche)
+    public List<Integer> enCours(Cible cible, Type type) {
+        return surReference(() -> repository.findByCibleAndType(cible, type).stream()
+                .map(PendingOperation::getEntityId)
+                .toList());
+    }
+
+    // Identifiants des entités portant un marqueur donné posé par cette instance (lecture fraîche) ;
+    // les marqueurs sans propriétaire, antérieurs à son enregistrement, sont inclus
+    public List<Integer> enCoursSurCetteInstance(Cible cible, Type type) {
+        return surReference(() -> repository.findByCibleAndTypeOwnedBy(cible, type, noeud).stream()
+                .map(PendingOperation::getEntityId)
+                .toList());
+    }
+
+    // Lecture via l'instantané, pour filtrer les lectures sans requête par ligne
+    public boolean isPending(Cible cible, int entityId, Type type) {
+        if (System.nanoTime() - chargeLe > rafraichissementNanos) {
+            recharger();
+        }
+        return instantane.get(PendingOperation.cle(cible, entityId)) == type;
+    }
+
+    // Refuser une écriture sur une entité marquée ou sous un parent marqué
+    public void verifierModifiable(Cible cible, int entityId) {
+        Optional<Type> enCours = lire(cible, entityId);
+        if (enCours.isEmpty()) {
+            return;
+        }
+        if (enCours.get() == Type.SUPPRESSION) {
+            throw new ResourceNotFoundException(libelle(cible, entityId) + " introuvable (suppression en cours).");
+        }
+        throw new IllegalArgumentException(libelle(cible, entityId) + " : " + description(enCours.get()) + ".");
+    }
+
+    private synchronized void recharger() {
+        if (System.nanoTime() - chargeLe <= rafraichissementNanos) {
+            return;
+        }
+        Map<String, Type> charge = new HashMap<>();
+        surReference(repository::findAll).forEach(operation -> charge.put(operation.getCle(), operation.getType()));
+        instantane = Map.copyOf(charge);
+        chargeLe = System.nanoTime();
+    }
+
+    // Les opérations de cette instance sont visibles immédiatement, sans attendre le rafraîchissement
+    private synchronized void appliquer(String cle, Type type) {
+        Map<String, Type> copie = new HashMap<>(instantane);
+        if (type == null) {
+            copie.remove(cle);
+        } else {
+            copie.put(cle, type);
+        }
+        instantane = Map.copyOf(copie);
+    }
+
+    // Transaction propre, toujours sur la partition 0, même appelée depuis une transaction en cours
+    private <T> T surReference(Supplier<T> operation) {
+        return shardRouter.onShard(0, () -> transaction.execute(status -> operation.get()));
+    }
+
+    private static String nomDHote() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Nom d'hôte introuvable : renseigner app.node-id", e);
+        }
+    }
+
+    private static String libelle(Cible cible, int entityId) {
+        return (cible == Cible.CONFERENCE ? "Conférence " : "Utilisateur ") + entityId;
+    }
+
+    private static String description(Type type) {
+        return switch (type) {
+            case SUPPRESSION -> "suppression en cours";
+            case ARCHIVAGE, PURGE -> "archivage en cours";
+            case ARCHIVEE -> "archivée, à restaurer avant toute modification";
+            case RESTAURATION -> "restauration en cours";
+            case DECISION -> "décisions de revue en cours";
+        };
+    }
+}
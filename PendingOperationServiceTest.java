@@ -0,0 +1,66 @@
+package com.conference.api.services;
+
+import com.conference.api.config.ShardRouter;
+import com.conference.api.config.ShardingProperties;
+import com.conference.api.entities.PendingOperation;
+import com.conference.api.entities.PendingOperation.Cible;
+import com.conference.api.entities.PendingOperation.Type;
+import com.conference.api.repositories.PendingOperationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Un marqueur garde l'instance qui l'a posé, et chaque instance ne relit que les siens à la reprise
+@ExtendWith(MockitoExtension.class)
+class PendingOperationServiceTest {
+
+    @Mock
+    private PendingOperationRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void marqueurPoseAvecSonInstance() {
+        service("noeud-a").acquerir(Cible.CONFERENCE, 3, Type.DECISION);
+
+        assertThat(marqueurEnregistre().getProprietaire()).isEqualTo("noeud-a");
+    }
+
+    @Test
+    void instanceParDefautNommeeDApresLHote() throws UnknownHostException {
+        service("").acquerir(Cible.CONFERENCE, 3, Type.DECISION);
+
+        assertThat(marqueurEnregistre().getProprietaire()).isEqualTo(InetAddress.getLocalHost().getHostName());
+    }
+
+    @Test
+    void repriseLimiteeAuxMarqueursDeLInstance() {
+        when(repository.findByCibleAndTypeOwnedBy(Cible.CONFERENCE, Type.DECISION, "noeud-a"))
+                .thenReturn(List.of(new PendingOperation(Cible.CONFERENCE, 3, Type.DECISION, "noeud-a")));
+
+        assertThat(service("noeud-a").enCoursSurCetteInstance(Cible.CONFERENCE, Type.DECISION)).containsExactly(3);
+    }
+
+    private PendingOperation marqueurEnregistre() {
+        ArgumentCaptor<PendingOperation> marqueur = ArgumentCaptor.forClass(PendingOperation.class);
+        verify(repository).saveAndFlush(marqueur.capture());
+        return marqueur.getValue();
+    }
+
+    private PendingOperationService service(String noeud) {
+        return new PendingOperationService(repository, new ShardRouter(new ShardingProperties()), transactionManager,
+                Duration.ofSeconds(2), noeud);
+    }
+}
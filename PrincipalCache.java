@@ -0,0 +1,122 @@
+package com.conference.api.security;
+
+import com.conference.api.config.ShardRouter;
+import com.conference.api.entities.Utilisateur;
+import com.conference.api.exceptions.ResourceNotFoundException;
+import com.conference.api.repositories.UserRoleRepository;
+import com.conference.api.repositories.UtilisateurRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cache borné (LRU) des principaux, alimenté par les UserRole et invalidé à chaque changement de rôle.
+// Les entrées expirent après app.security.principal-cache.ttl, ce qui borne aussi l'effet d'un changement
+// fait par une autre instance. Une invalidation survenue pendant un chargement empêche sa mise en cache.
+@Component
+public class PrincipalCache {
+
+    private final UtilisateurRepository utilisateurRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final ShardRouter shardRouter;
+    private final long ttlNanos;
+    private final Map<String, Entree> principaux;
+    // Incrémenté à chaque invalidation, sous le verrou de principaux
+    private long version;
+
+    public PrincipalCache(UtilisateurRepository utilisateurRepository,
+                          UserRoleRepository userRoleRepository,
+                          ShardRouter shardRouter,
+                          @Value("${app.security.principal-cache.size:10000}") int taille,
+                          @Value("${app.security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.utilisateurRepository = utilisateurRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.shardRouter = shardRouter;
+        this.ttlNanos = ttl.toNanos();
+        this.principaux = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree> eldest) {
+                return size() > taille;
+            }
+        };
+    }
+
+    // Récupérer le principal d'un utilisateur, en le chargeant si nécessaire
+    public CachedPrincipal get(String email) {
+        long versionLue;
+        synchronized (principaux) {
+            Entree entree = principaux.get(email);
+            if (entree != null && System.nanoTime() - entree.chargeeLe() < ttlNanos) {
+                return entree.principal();
+            }
+            versionLue = version;
+        }
+        // Chargement hors verrou ; le résultat n'est conservé que si aucune invalidation n'est intervenue entre-temps
+        CachedPrincipal charge = charger(email);
+        synchronized (principaux) {
+            if (version == versionLue) {
+                principaux.put(email, new Entree(charge, System.nanoTime()));
+            }
+        }
+        return charge;
+    }
+
+    // Invalider le principal d'un utilisateur après un changement de rôle
+    public void invalidate(Utilisateur utilisateur) {
+        if (utilisateur != null) {
+            invalidate(utilisateur.getId());
+        }
+    }
+
+    // Invalider une fois la transaction courante validée : un chargement concurrent lisant encore
+    // les anciens rôles ne peut plus être mis en cache après le commit
+    public void invalidateAfterCommit(Utilisateur utilisateur) {
+        if (utilisateur == null) {
+            return;
+        }
+        int utilisateurId = utilisateur.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(utilisateurId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(utilisateurId);
+            }
+        });
+    }
+
+    public void invalidate(int utilisateurId) {
+        synchronized (principaux) {
+            version++;
+            principaux.values().removeIf(entree -> entree.principal().utilisateurId() == utilisateurId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (principaux) {
+            version++;
+            principaux.clear();
+        }
+    }
+
+    private CachedPrincipal charger(String email) {
+        Utilisateur utilisateur = utilisateurRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur not found with email " + email));
+        // Rôles répartis sur les partitions ; les rôles globaux répliqués sont dédoublonnés par distinct()
+        List<String> roles = shardRouter.fanOut(() -> userRoleRepository.findByUtilisateurId(utilisateur.getId())).stream()
+                .map(userRole -> userRole.getRole().name())
+                .distinct()
+                .toList();
+        return new CachedPrincipal(utilisateur.getId(), utilisateur.getEmail(), roles);
+    }
+
+    private record Entree(CachedPrincipal principal, long chargeeLe) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.conference.api.security;
+
+import com.conference.api.config.ShardRouter;
+import com.conference.api.config.ShardingProperties;
+import com.conference.api.entities.Utilisateur;
+import com.conference.api.repositories.UserRoleRepository;
+import com.conference.api.repositories.UtilisateurRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Un changement de rôle n'invalide le cache qu'après le commit de la transaction qui l'a fait
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "auteur@example.org";
+
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+    @Mock
+    private UserRoleRepository userRoleRepository;
+
+    private PrincipalCache cache;
+    private Utilisateur utilisateur;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache(utilisateurRepository, userRoleRepository, new ShardRouter(new ShardingProperties()),
+                100, Duration.ofMinutes(5));
+        utilisateur = new Utilisateur();
+        utilisateur.setId(5);
+        utilisateur.setEmail(EMAIL);
+        when(utilisateurRepository.findByEmail(EMAIL)).thenReturn(Optional.of(utilisateur));
+        when(userRoleRepository.findByUtilisateurId(5)).thenReturn(List.of());
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:principal-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        cache.get(EMAIL);
+    }
+
+    @Test
+    void invalidationAppliqueeAuCommit() {
+        transaction.executeWithoutResult(status -> {
+            cache.invalidateAfterCommit(utilisateur);
+            // Un chargement pendant la transaction voit encore l'entrée en cache
+            cache.get(EMAIL);
+            verify(utilisateurRepository, times(1)).findByEmail(EMAIL);
+        });
+
+        cache.get(EMAIL);
+        verify(utilisateurRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void invalidationAbandonneeAuRollback() {
+        transaction.executeWithoutResult(status -> {
+            cache.invalidateAfterCommit(utilisateur);
+            status.setRollbackOnly();
+        });
+
+        cache.get(EMAIL);
+        verify(utilisateurRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void horsTransactionInvalidationImmediate() {
+        cache.invalidateAfterCommit(utilisateur);
+
+        cache.get(EMAIL);
+        verify(utilisateurRepository, times(2)).findByEmail(EMAIL);
+    }
+}
@@ -0,0 +1,60 @@
+package com.conference.api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Oriente les transactions en lecture seule vers le réplica et le reste vers le primaire, d'après
+// le seul indicateur readOnly de la transaction courante. Une lecture suivie d'une écriture doit
+// donc s'exécuter dans une même transaction en écriture (méthode de service @Transactional).
+// Après une écriture, le thread reste collé au primaire (read-your-writes) jusqu'à la fin de son
+// point d'entrée : requête HTTP (ReadYourWritesFilter) ou tâche d'arrière-plan (isoler).
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Cible { PRIMAIRE, REPLICA }
+
+    private static final ThreadLocal<Boolean> ECRITURE_EFFECTUEE = new ThreadLocal<>();
+
+    private final AtomicLong connexionsPrimaire = new AtomicLong();
+    private final AtomicLong connexionsReplica = new AtomicLong();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean lectureSeule = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (lectureSeule && !Boolean.TRUE.equals(ECRITURE_EFFECTUEE.get())) {
+            connexionsReplica.incrementAndGet();
+            return Cible.REPLICA;
+        }
+        if (!lectureSeule && TransactionSynchronizationManager.isActualTransactionActive()) {
+            ECRITURE_EFFECTUEE.set(Boolean.TRUE);
+        }
+        connexionsPrimaire.incrementAndGet();
+        return Cible.PRIMAIRE;
+    }
+
+    // Réinitialiser l'adhérence au primaire en début et fin de requête
+    public static void resetStickiness() {
+        ECRITURE_EFFECTUEE.remove();
+    }
+
+    // Point d'entrée d'arrière-plan : la tâche part sans adhérence et n'en laisse aucune au thread
+    public static Runnable isoler(Runnable tache) {
+        return () -> {
+            resetStickiness();
+            try {
+                tache.run();
+            } finally {
+                resetStickiness();
+            }
+        };
+    }
+
+    public long getConnexionsPrimaire() {
+        return connexionsPrimaire.get();
+    }
+
+    public long getConnexionsReplica() {
+        return connexionsReplica.get();
+    }
+}
@@ -0,0 +1,144 @@
+package com.conference.api.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Routage sur deux bases H2 embarquées : chaque base renvoie son propre nom, ce qui montre
+// laquelle a servi la requête
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate ecriture;
+    private TransactionTemplate lecture;
+    private ReadWriteRoutingDataSource routage;
+
+    @BeforeEach
+    void setUp() {
+        String suffixe = UUID.randomUUID().toString();
+        routage = routage(base("primary-" + suffixe, "primaire"), base("replica-" + suffixe, "replica"));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routage);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        ecriture = new TransactionTemplate(transactionManager);
+        lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        ReadWriteRoutingDataSource.resetStickiness();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.resetStickiness();
+    }
+
+    @Test
+    void lectureSeuleServieParLeReplica() {
+        assertThat(lire(lecture)).isEqualTo("replica");
+        assertThat(routage.getConnexionsReplica()).isEqualTo(1);
+    }
+
+    @Test
+    void transactionEnEcritureServieParLePrimaire() {
+        assertThat(lire(ecriture)).isEqualTo("primaire");
+        assertThat(routage.getConnexionsPrimaire()).isEqualTo(1);
+    }
+
+    @Test
+    void transactionDeDepotEnLectureSeuleServieParLeReplica() {
+        // Le nom de transaction n'intervient plus dans le routage
+        lecture.setName("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById");
+        assertThat(lire(lecture)).isEqualTo("replica");
+    }
+
+    @Test
+    void apresUneEcritureLesLecturesRestentSurLePrimaire() {
+        ecrire("modifiee");
+        assertThat(lire(lecture)).isEqualTo("modifiee");
+
+        ReadWriteRoutingDataSource.resetStickiness();
+        assertThat(lire(lecture)).isEqualTo("replica");
+    }
+
+    @Test
+    void uneTacheIsoleeNeLaissePasDAdherenceAuThread() {
+        ReadWriteRoutingDataSource.isoler(() -> {
+            ecrire("modifiee");
+            assertThat(lire(lecture)).isEqualTo("modifiee");
+        }).run();
+
+        assertThat(lire(lecture)).isEqualTo("replica");
+    }
+
+    @Test
+    void uneTacheIsoleeNHeritePasDeLAdherenceDuThread() {
+        ecrire("modifiee");
+        ReadWriteRoutingDataSource.isoler(() -> assertThat(lire(lecture)).isEqualTo("replica")).run();
+    }
+
+    @Test
+    void configurationLocaleLesDeuxPoolsPartagentLaMemeBase() {
+        // Configuration locale du README : même base H2 nommée, le réplica voit aussitôt les écritures
+        String url = "jdbc:h2:mem:local-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        routage = routage(base(url), base(url));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routage);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        ecriture = new TransactionTemplate(transactionManager);
+        lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        ecriture.executeWithoutResult(status -> jdbc.execute("CREATE TABLE origine (nom VARCHAR(32))"));
+        ecrire("partagee");
+        ReadWriteRoutingDataSource.resetStickiness();
+
+        assertThat(lire(lecture)).isEqualTo("partagee");
+        assertThat(routage.getConnexionsReplica()).isEqualTo(1);
+    }
+
+    private String lire(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbc.queryForObject("SELECT nom FROM origine", String.class));
+    }
+
+    private void ecrire(String nom) {
+        ecriture.executeWithoutResult(status -> {
+            jdbc.update("DELETE FROM origine");
+            jdbc.update("INSERT INTO origine (nom) VALUES (?)", nom);
+        });
+    }
+
+    private static ReadWriteRoutingDataSource routage(DataSource primaire, DataSource replica) {
+        ReadWriteRoutingDataSource routage = new ReadWriteRoutingDataSource();
+        routage.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Cible.PRIMAIRE, primaire,
+                ReadWriteRoutingDataSource.Cible.REPLICA, replica));
+        routage.setDefaultTargetDataSource(primaire);
+        routage.afterPropertiesSet();
+        return routage;
+    }
+
+    // Base H2 en mémoire dont l'unique ligne porte le nom de la base
+    private static DataSource base(String nom, String contenu) {
+        DataSource dataSource = base("jdbc:h2:mem:" + nom + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE origine (nom VARCHAR(32))");
+        jdbc.update("INSERT INTO origine (nom) VALUES (?)", contenu);
+        return dataSource;
+    }
+
+    private static DataSource base(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,172 @@
+package com.conference.api.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Réplication des données de référence (utilisateurs, rôles globaux) sur les partitions secondaires.
+// La partition 0 fait foi : la ligne y est écrite par JPA dans la transaction courante, puis copiée
+// avec le même identifiant sur chaque autre partition. Si une copie échoue, les partitions déjà
+// modifiées sont restaurées et l'exception annule la transaction de la partition 0 ; si cette
+// transaction est annulée plus tard, toutes les copies sont restaurées dans l'ordre inverse.
+// Les identifiants sont attribués par la partition 0 (rôles globaux : id ≡ 0 mod n) et ne
+// peuvent donc pas entrer en collision avec ceux générés par une partition secondaire.
+@Component
+public class ReferenceDataReplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataReplicator.class);
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate reference;
+    private final List<JdbcTemplate> secondaires;
+    private final Map<Class<?>, String[]> tables = new ConcurrentHashMap<>();
+
+    public ReferenceDataReplicator(ShardRouter shardRouter, EntityManager entityManager, DataSource dataSource,
+                                   @Qualifier("shardRoutingDataSource") ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        this.entityManager = entityManager;
+        // Source principale : la lecture partage la connexion de la transaction en cours
+        this.reference = new JdbcTemplate(dataSource);
+        ShardRoutingDataSource routage = shardRouter.getPartitions() > 1 ? shardRoutingDataSource.getIfAvailable() : null;
+        List<JdbcTemplate> jdbc = new ArrayList<>();
+        if (routage != null) {
+            List<DataSource> partitions = routage.getPartitions();
+            for (int p = 1; p < partitions.size(); p++) {
+                jdbc.add(new JdbcTemplate(partitions.get(p)));
+            }
+        }
+        this.secondaires = List.copyOf(jdbc);
+    }
+
+    // Aligner les partitions secondaires sur la ligne (ou l'absence de ligne) de la partition 0.
+    // À appeler dans la transaction de la partition 0, après l'écriture JPA.
+    public void synchroniser(Class<?> entite, Object id) {
+        if (secondaires.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || partitionCourante() != 0) {
+            throw new IllegalStateException("La réplication doit s'exécuter dans une transaction sur la partition 0.");
+        }
+        entityManager.flush();
+        String[] table = table(entite);
+        Map<String, Object> ligne = lire(reference, table, id);
+
+        List<Map<String, Object>> anciennes = new ArrayList<>();
+        try {
+            for (JdbcTemplate secondaire : secondaires) {
+                Map<String, Object> ancienne = lire(secondaire, table, id);
+                appliquer(secondaire, table, id, ancienne, ligne);
+                anciennes.add(ancienne);
+            }
+        } catch (RuntimeException e) {
+            restaurer(table, id, anciennes);
+            throw new IllegalStateException("Réplication de " + table[0] + " " + id + " impossible : partitions annulées.", e);
+        }
+
+        // La partition 0 peut encore échouer à la validation : les copies suivent alors son annulation
+        restaurations().push(() -> restaurer(table, id, anciennes));
+    }
+
+    // Restaurations de la transaction courante, la plus récente en tête (un rôle avant son utilisateur)
+    @SuppressWarnings("unchecked")
+    private Deque<Runnable> restaurations() {
+        Deque<Runnable> restaurations = (Deque<Runnable>) TransactionSynchronizationManager.getResource(this);
+        if (restaurations == null) {
+            Deque<Runnable> nouvelles = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(this, nouvelles);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReferenceDataReplicator.this);
+                    if (status != STATUS_COMMITTED) {
+                        nouvelles.forEach(Runnable::run);
+                    }
+                }
+            });
+            restaurations = nouvelles;
+        }
+        return restaurations;
+    }
+
+    private void appliquer(JdbcTemplate jdbc, String[] table, Object id, Map<String, Object> avant, Map<String, Object> apres) {
+        int lignes;
+        if (apres == null) {
+            lignes = avant == null ? 1 : jdbc.update("DELETE FROM " + table[0] + " WHERE " + table[1] + " = ?", id);
+        } else if (avant == null) {
+            List<String> colonnes = new ArrayList<>(apres.keySet());
+            lignes = jdbc.update("INSERT INTO " + table[0] + " (" + String.join(", ", colonnes) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(colonnes.size(), "?")) + ")", apres.values().toArray());
+        } else {
+            List<String> affectations = new ArrayList<>();
+            List<Object> valeurs = new ArrayList<>();
+            apres.forEach((colonne, valeur) -> {
+                if (!colonne.equalsIgnoreCase(table[1])) {
+                    affectations.add(colonne + " = ?");
+                    valeurs.add(valeur);
+                }
+            });
+            valeurs.add(id);
+            lignes = jdbc.update("UPDATE " + table[0] + " SET " + String.join(", ", affectations)
+                    + " WHERE " + table[1] + " = ?", valeurs.toArray());
+        }
+        if (lignes != 1) {
+            throw new IllegalStateException("Partition divergente pour " + table[0] + " " + id + " (" + lignes + " ligne(s)).");
+        }
+    }
+
+    // Remettre chaque partition déjà traitée dans son état d'avant la réplication
+    private void restaurer(String[] table, Object id, List<Map<String, Object>> anciennes) {
+        for (int p = 0; p < anciennes.size(); p++) {
+            JdbcTemplate secondaire = secondaires.get(p);
+            try {
+                appliquer(secondaire, table, id, lire(secondaire, table, id), anciennes.get(p));
+            } catch (RuntimeException e) {
+                log.error("Partition {} divergente pour {} {} : restauration impossible", p + 1, table[0], id, e);
+            }
+        }
+    }
+
+    private static Map<String, Object> lire(JdbcTemplate jdbc, String[] table, Object id) {
+        try {
+            return jdbc.queryForMap("SELECT * FROM " + table[0] + " WHERE " + table[1] + " = ?", id);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Lecture de " + table[0] + " " + id + " impossible.", e);
+        }
+    }
+
+    // Table et colonne d'identifiant lues dans le métamodèle Hibernate
+    private String[] table(Class<?> entite) {
+        return tables.computeIfAbsent(entite, classe -> {
+            AbstractEntityPersister persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getMappingMetamodel()
+                    .getEntityDescriptor(classe);
+            return new String[] {persister.getTableName(), persister.getIdentifierColumnNames()[0]};
+        });
+    }
+
+    private static int partitionCourante() {
+        Integer partition = ShardContext.current();
+        return partition == null ? 0 : partition;
+    }
+}
@@ -0,0 +1,31 @@
+package com.conference.api.config;
+
+import java.util.function.Supplier;
+
+// Partition courante du thread, lue par ShardRoutingDataSource à l'ouverture de la connexion
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> PARTITION = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return PARTITION.get();
+    }
+
+    // Exécuter l'opération sur une partition puis restaurer la partition précédente
+    public static <T> T call(int partition, Supplier<T> operation) {
+        Integer precedente = PARTITION.get();
+        PARTITION.set(partition);
+        try {
+            return operation.get();
+        } finally {
+            if (precedente == null) {
+                PARTITION.remove();
+            } else {
+                PARTITION.set(precedente);
+            }
+        }
+    }
+}
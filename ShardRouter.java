@@ -0,0 +1,134 @@
+package com.conference.api.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Aiguillage des opérations vers la partition propriétaire d'une conférence.
+// Les identifiants des tables partitionnées sont entrelacés : l'entité d'identifiant id
+// réside sur la partition id mod n, ce qui permet de router sans table de correspondance.
+// Sans partitionnement (une seule partition), toutes les opérations s'exécutent telles quelles.
+// Une interrogation de toutes les partitions lit chacune dans sa propre transaction, sur un autre thread :
+// les entités rendues sont détachées, la requête doit donc charger tout ce que l'appelant lira.
+@Component
+public class ShardRouter {
+
+    private final int partitions;
+    private final AtomicInteger prochaine = new AtomicInteger();
+    private final ExecutorService executor;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    public ShardRouter(ShardingProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public ShardRouter(ShardingProperties properties, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.partitions = properties.isEnabled() ? Math.max(1, properties.getShards().size()) : 1;
+        this.executor = partitions > 1
+                ? Executors.newFixedThreadPool(properties.getFanOutThreads(), r -> {
+                    Thread thread = new Thread(r, "shard-fan-out");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+        this.transactionManager = transactionManager;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    // Partition propriétaire d'une entité partitionnée (conférence, soumission, évaluation, rôle)
+    public int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) partitions);
+    }
+
+    public <T> T onShard(int partition, Supplier<T> operation) {
+        return partitions == 1 ? operation.get() : ShardContext.call(partition, operation);
+    }
+
+    public void onShard(int partition, Runnable operation) {
+        onShard(partition, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    public <T> T onEntity(long id, Supplier<T> operation) {
+        return onShard(shardOf(id), operation);
+    }
+
+    public void onEntity(long id, Runnable operation) {
+        onShard(shardOf(id), operation);
+    }
+
+    // Placer une nouvelle conférence : partition courante si déjà choisie, sinon tourniquet
+    public <T> T onNewConference(Supplier<T> operation) {
+        Integer courante = ShardContext.current();
+        int partition = courante != null ? courante : Math.floorMod(prochaine.getAndIncrement(), partitions);
+        return onShard(partition, operation);
+    }
+
+    // Interroger toutes les partitions en parallèle et fusionner les résultats
+    public <T> List<T> fanOut(Supplier<? extends List<T>> requete) {
+        if (partitions == 1) {
+            return new ArrayList<>(requete.get());
+        }
+        List<CompletableFuture<? extends List<T>>> resultats = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            int partition = p;
+            resultats.add(CompletableFuture.supplyAsync(() -> ShardContext.call(partition, () -> lire(requete)), executor));
+        }
+        List<T> fusion = new ArrayList<>();
+        try {
+            resultats.forEach(resultat -> fusion.addAll(resultat.join()));
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return fusion;
+    }
+
+    // Lire une partition dans une transaction en lecture seule ouverte sur celle-ci : les requêtes
+    // de l'appel partagent un même contexte de persistance jusqu'à la fin de la lecture
+    private <T> List<T> lire(Supplier<? extends List<T>> requete) {
+        PlatformTransactionManager gestionnaire = transactionManager == null ? null : transactionManager.getIfAvailable();
+        if (gestionnaire == null) {
+            return new ArrayList<>(requete.get());
+        }
+        TransactionTemplate lecture = new TransactionTemplate(gestionnaire);
+        lecture.setReadOnly(true);
+        return lecture.execute(status -> new ArrayList<>(requete.get()));
+    }
+
+    // Première partition, en partant de la partition propriétaire supposée, qui trouve l'entité
+    public <T> Optional<T> findFirst(long id, Supplier<Optional<T>> requete) {
+        for (int i = 0; i < partitions; i++) {
+            Optional<T> resultat = onShard((shardOf(id) + i) % partitions, requete);
+            if (resultat.isPresent()) {
+                return resultat;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
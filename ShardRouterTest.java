@@ -0,0 +1,125 @@
+package com.conference.api.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Partitionnement sur deux bases H2 embarquées : chaque base renvoie son propre numéro, ce qui montre
+// laquelle a servi la requête
+class ShardRouterTest {
+
+    private ShardRouter router;
+    private JdbcTemplate jdbc;
+    private List<DataSource> bases;
+
+    @BeforeEach
+    void setUp() {
+        String suffixe = UUID.randomUUID().toString();
+        bases = List.of(base("shard0-" + suffixe, 0), base("shard1-" + suffixe, 1));
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.setShards(List.of(new ShardingProperties.Shard(), new ShardingProperties.Shard()));
+        properties.setTables(List.of("conference"));
+        // Une ligne préexistante sur la partition 0 : l'entrelacement repart au-delà
+        new JdbcTemplate(bases.get(0)).update("INSERT INTO conference (id, titre) VALUES (4, 'existante')");
+        new ShardSchemaInitializer(properties, bases, Path.of("absent.sql")).afterSingletonsInstantiated();
+
+        ShardRoutingDataSource routage = new ShardRoutingDataSource(bases);
+        routage.afterPropertiesSet();
+        jdbc = new JdbcTemplate(routage);
+        router = new ShardRouter(properties, new StaticListableBeanFactory(Map.of("transactionManager",
+                new DataSourceTransactionManager(routage))).getBeanProvider(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+        bases.forEach(base -> new JdbcTemplate(base).execute("SHUTDOWN"));
+    }
+
+    @Test
+    void entiteRouteeVersLaPartitionDeSonIdentifiant() {
+        assertThat(router.onEntity(6, this::partitionCourante)).isZero();
+        assertThat(router.onEntity(7, this::partitionCourante)).isEqualTo(1);
+        assertThat(partitionCourante()).isZero();
+    }
+
+    @Test
+    void identifiantsEntrelacesEntreLesPartitions() {
+        List<Integer> partition0 = new ArrayList<>();
+        List<Integer> partition1 = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int rang = i;
+            partition0.add(router.onShard(0, () -> inserer("p0-" + rang)));
+            partition1.add(router.onShard(1, () -> inserer("p1-" + rang)));
+        }
+
+        assertThat(partition0).containsExactly(6, 8, 10);
+        assertThat(partition1).containsExactly(1, 3, 5);
+        partition0.forEach(id -> assertThat(router.shardOf(id)).isZero());
+        partition1.forEach(id -> assertThat(router.shardOf(id)).isEqualTo(1));
+    }
+
+    @Test
+    void fanOutFusionneLesPartitions() {
+        router.onShard(0, () -> inserer("a"));
+        router.onShard(1, () -> inserer("b"));
+        router.onShard(1, () -> inserer("c"));
+
+        assertThat(router.fanOut(() -> jdbc.queryForList("SELECT titre FROM conference", String.class)))
+                .containsExactlyInAnyOrder("existante", "a", "b", "c");
+        assertThat(router.findFirst(3, () -> jdbc.queryForList("SELECT titre FROM conference WHERE id = 3", String.class)
+                .stream().findFirst())).contains("c");
+    }
+
+    @Test
+    void chaquePartitionLueDansSaTransactionEnLectureSeule() {
+        // Deux requêtes d'une même partition partagent la connexion de sa transaction
+        List<String> lectures = router.fanOut(() -> List.of(TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                + "/" + partitionCourante() + "/" + jdbc.queryForObject("SELECT SESSION_ID()", Integer.class)
+                .equals(jdbc.queryForObject("SELECT SESSION_ID()", Integer.class))));
+
+        assertThat(lectures).containsExactlyInAnyOrder("true/0/true", "true/1/true");
+    }
+
+    private int inserer(String titre) {
+        GeneratedKeyHolder cle = new GeneratedKeyHolder();
+        PreparedStatementCreatorFactory insertion = new PreparedStatementCreatorFactory(
+                "INSERT INTO conference (titre) VALUES (?)", Types.VARCHAR);
+        insertion.setGeneratedKeysColumnNames("id");
+        jdbc.update(insertion.newPreparedStatementCreator(List.of(titre)), cle);
+        return cle.getKey().intValue();
+    }
+
+    private int partitionCourante() {
+        return jdbc.queryForObject("SELECT numero FROM origine", Integer.class);
+    }
+
+    private static DataSource base(String nom, int numero) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + nom + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE conference (id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, titre VARCHAR(50))");
+        jdbc.execute("CREATE TABLE origine (numero INT)");
+        jdbc.update("INSERT INTO origine (numero) VALUES (?)", numero);
+        return dataSource;
+    }
+}
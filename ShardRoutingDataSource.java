@@ -0,0 +1,34 @@
+package com.conference.api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Oriente chaque connexion vers la partition du contexte courant (partition 0 par défaut)
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> partitions;
+
+    public ShardRoutingDataSource(List<DataSource> partitions) {
+        this.partitions = List.copyOf(partitions);
+        Map<Object, Object> cibles = new HashMap<>();
+        for (int p = 0; p < partitions.size(); p++) {
+            cibles.put(p, partitions.get(p));
+        }
+        setTargetDataSources(cibles);
+        setDefaultTargetDataSource(partitions.get(0));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer partition = ShardContext.current();
+        return partition == null ? 0 : partition;
+    }
+
+    public List<DataSource> getPartitions() {
+        return partitions;
+    }
+}
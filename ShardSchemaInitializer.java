@@ -0,0 +1,75 @@
+package com.conference.api.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+// Prépare chaque partition une fois le schéma généré : création des tables sur les partitions
+// secondaires, puis entrelacement des identifiants (id ≡ partition mod n) des tables partitionnées
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private final ShardingProperties properties;
+    private final List<DataSource> partitions;
+    private final Path script;
+
+    public ShardSchemaInitializer(ShardingProperties properties, List<DataSource> partitions, Path script) {
+        this.properties = properties;
+        this.partitions = partitions;
+        this.script = script;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int n = partitions.size();
+        for (int p = 0; p < n; p++) {
+            DataSource partition = partitions.get(p);
+            if (p > 0 && Files.exists(script) && !schemaPresent(partition)) {
+                // Toute erreur DDL interrompt le démarrage : une partition incomplète ne doit pas servir
+                new ResourceDatabasePopulator(new FileSystemResource(script)).execute(partition);
+            }
+            JdbcTemplate jdbc = new JdbcTemplate(partition);
+            for (String table : properties.getTables()) {
+                Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                jdbc.execute(properties.getIdSetupSql()
+                        .replace("{table}", table)
+                        .replace("{start}", String.valueOf(prochainId(max == null ? 0 : max, p, n)))
+                        .replace("{step}", String.valueOf(n)));
+            }
+        }
+    }
+
+    // Une base déjà initialisée contient les tables partitionnées : le script n'est pas rejoué
+    private boolean schemaPresent(DataSource partition) {
+        try (Connection connexion = partition.getConnection()) {
+            DatabaseMetaData meta = connexion.getMetaData();
+            for (String table : List.of(properties.getTables().get(0), properties.getTables().get(0).toUpperCase(Locale.ROOT))) {
+                try (ResultSet tables = meta.getTables(connexion.getCatalog(), null, table, new String[] {"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Lecture du schéma de la partition impossible.", e);
+        }
+    }
+
+    // Plus petit identifiant strictement supérieur à max et congru à la partition modulo n
+    static long prochainId(long max, int partition, int n) {
+        long candidat = max + 1;
+        candidat += Math.floorMod(partition - candidat, (long) n);
+        return candidat;
+    }
+}
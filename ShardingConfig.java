@@ -0,0 +1,60 @@
+package com.conference.api.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+// Partitionnement par conférence : activé avec app.sharding.enabled=true (exclusif du routage lecture/écriture)
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    // Script du schéma exporté par Hibernate, rejoué sur les partitions secondaires
+    private final Path scriptSchema = Path.of(System.getProperty("java.io.tmpdir"),
+            "shard-schema-" + ProcessHandle.current().pid() + ".sql");
+
+    @Bean(defaultCandidate = false)
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("app.sharding.shards doit déclarer au moins une partition.");
+        }
+        return new ShardRoutingDataSource(properties.getShards().stream()
+                .map(shard -> (DataSource) DataSourceBuilder.create()
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build())
+                .toList());
+    }
+
+    // La connexion n'est obtenue qu'au premier ordre SQL, une fois la partition fixée
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("shardRoutingDataSource") ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    // Hibernate crée le schéma sur la partition 0 et l'exporte en script pour les autres partitions
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaExport() {
+        return properties -> {
+            properties.put("jakarta.persistence.schema-generation.scripts.action", "create");
+            properties.put("jakarta.persistence.schema-generation.scripts.create-target", scriptSchema.toString());
+            properties.put("hibernate.hbm2ddl.schema-generation.script.append", "false");
+        };
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardingProperties properties,
+                                                         @Qualifier("shardRoutingDataSource") ShardRoutingDataSource shardRoutingDataSource) {
+        return new ShardSchemaInitializer(properties, shardRoutingDataSource.getPartitions(), scriptSchema);
+    }
+}
@@ -0,0 +1,39 @@
+package com.conference.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Paramètres du partitionnement par conférence (préfixe app.sharding)
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Une entrée par partition ; la partition 0 héberge aussi les données de référence
+    private List<Shard> shards = new ArrayList<>();
+
+    // Tables partitionnées dont les identifiants sont entrelacés : id ≡ partition (mod nombre de partitions)
+    private List<String> tables = new ArrayList<>(List.of("conference", "soumission", "evaluation", "user_role"));
+
+    // Ordre SQL fixant le prochain identifiant et le pas d'une colonne d'identité
+    private String idSetupSql = "ALTER TABLE {table} ALTER COLUMN id RESTART WITH {start} SET INCREMENT BY {step}";
+
+    // Threads utilisés pour interroger les partitions en parallèle
+    private int fanOutThreads = 8;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -1,10 +1,22 @@
 package com.conference.api.repositories;
 
 import com.conference.api.entities.Soumission;
+import com.conference.api.entities.SoumissionEtat;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface SoumissionRepository extends JpaRepository<Soumission, Integer> {
@@ -16,4 +28,58 @@ public interface SoumissionRepository extends JpaRepository<Soumission, Integer>
 
     // Trouver toutes les soumissions par état
     List<Soumission> findByEtat(String etat);
+
+    // Soumissions avec auteur, conférence et co-auteurs chargés, lues sur chaque partition (fan-out) ;
+    // les évaluateurs, seconde collection, sont chargés par fetchEvaluateursByIdIn
+    @Query("SELECT DISTINCT s FROM Soumission s LEFT JOIN FETCH s.auteur LEFT JOIN FETCH s.conference LEFT JOIN FETCH s.coAuteurs")
+    List<Soumission> findAllWithAssociations();
+
+    @Query("SELECT DISTINCT s FROM Soumission s LEFT JOIN FETCH s.auteur LEFT JOIN FETCH s.conference LEFT JOIN FETCH s.coAuteurs "
+            + "WHERE s.auteur.id = :auteurId")
+    List<Soumission> findByAuteurIdWithAssociations(@Param("auteurId") int auteurId);
+
+    @Query("SELECT DISTINCT s FROM Soumission s LEFT JOIN FETCH s.auteur LEFT JOIN FETCH s.conference LEFT JOIN FETCH s.coAuteurs "
+            + "WHERE s.etat = :etat")
+    List<Soumission> findByEtatWithAssociations(@Param("etat") SoumissionEtat etat);
+
+    // Charger les évaluateurs d'un lot de soumissions déjà lues dans le même contexte de persistance (fan-out)
+    @Query("SELECT DISTINCT s FROM Soumission s LEFT JOIN FETCH s.evaluateurs WHERE s.id IN :ids")
+    List<Soumission> fetchEvaluateursByIdIn(@Param("ids") List<Integer> ids);
+
+    // IDs des soumissions d'une conférence, par lot (suppression en cascade)
+    @Query("SELECT s.id FROM Soumission s WHERE s.conference.id = :conferenceId ORDER BY s.id")
+    List<Integer> findIdsByConferenceId(@Param("conferenceId") int conferenceId, Pageable pageable);
+
+    // IDs des soumissions d'un auteur, par lot (suppression en cascade)
+    @Query("SELECT s.id FROM Soumission s WHERE s.auteur.id = :auteurId ORDER BY s.id")
+    List<Integer> findIdsByAuteurId(@Param("auteurId") int auteurId, Pageable pageable);
+
+    // Parcours en flux des soumissions d'une conférence (archivage)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Soumission s WHERE s.conference.id = :conferenceId ORDER BY s.id")
+    Stream<Soumission> streamByConferenceId(@Param("conferenceId") int conferenceId);
+
+    // IDs des soumissions d'une conférence dans un état donné (décisions)
+    @Query("SELECT s.id FROM Soumission s WHERE s.conference.id = :conferenceId AND s.etat = :etat ORDER BY s.id")
+    List<Integer> findIdsByConferenceIdAndEtat(@Param("conferenceId") int conferenceId, @Param("etat") SoumissionEtat etat);
+
+    // Nombre de soumissions d'une conférence (contrôle de l'archivage)
+    long countByConferenceId(int conferenceId);
+
+    // IDs d'un lot encore dans l'état attendu, verrouillés jusqu'à la fin de la transaction (décisions)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.id FROM Soumission s WHERE s.id IN :ids AND s.etat = :etat ORDER BY s.id")
+    List<Integer> lockIdsByIdInAndEtat(@Param("ids") List<Integer> ids, @Param("etat") SoumissionEtat etat);
+
+    // Changement d'état groupé d'un lot de soumissions, sans recharger les entités (décisions) ;
+    // les soumissions qui ont quitté l'état attendu sont laissées telles quelles
+    @Modifying
+    @Query("UPDATE Soumission s SET s.etat = :etat WHERE s.id IN :ids AND s.etat = :ancien")
+    int updateEtatByIdIn(@Param("ids") List<Integer> ids, @Param("ancien") SoumissionEtat ancien,
+                         @Param("etat") SoumissionEtat etat);
+
+    // Suppression groupée d'un lot de soumissions
+    @Modifying
+    @Query("DELETE FROM Soumission s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Integer> ids);
 }
@@ -1,8 +1,13 @@
 package com.conference.api.services;
 
+import com.conference.api.audit.AuditEntityType;
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ShardRouter;
 import com.conference.api.dto.SoumissionDTO;
 import com.conference.api.entities.Conference;
+import com.conference.api.entities.PendingOperation.Cible;
 import com.conference.api.entities.Soumission;
+import com.conference.api.entities.SoumissionEtat;
 import com.conference.api.entities.Utilisateur;
 import com.conference.api.entities.Role;
 import com.conference.api.exceptions.ResourceNotFoundException;
@@ -10,6 +15,7 @@ import com.conference.api.repositories.ConferenceRepository;
 import com.conference.api.repositories.SoumissionRepository;
 import com.conference.api.repositories.UtilisateurRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -20,20 +26,70 @@ import java.util.List;
 @Service
 public class SoumissionService {
 
+    // Submissions per evaluator fetch query, well under database bind-parameter limits
+    private static final int LOT_EVALUATEURS = 1000;
+
     private final SoumissionRepository soumissionRepository;
     private final UtilisateurRepository utilisateurRepository;
     private final ConferenceRepository conferenceRepository;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final AuditJournal auditJournal;
+    private final IdempotencyService idempotencyService;
+    private final ConferenceAdmissionLimiter conferenceAdmissionLimiter;
+    private final ArchiveService archiveService;
+    private final ShardRouter shardRouter;
+    private final PendingOperationService pendingOperations;
 
     public SoumissionService(SoumissionRepository soumissionRepository,
                              UtilisateurRepository utilisateurRepository,
-                             ConferenceRepository conferenceRepository) {
+                             ConferenceRepository conferenceRepository,
+                             CascadeDeleteService cascadeDeleteService,
+                             AuditJournal auditJournal,
+                             IdempotencyService idempotencyService,
+                             ConferenceAdmissionLimiter conferenceAdmissionLimiter,
+                             ArchiveService archiveService,
+                             ShardRouter shardRouter,
+                             PendingOperationService pendingOperations) {
         this.soumissionRepository = soumissionRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.conferenceRepository = conferenceRepository;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.auditJournal = auditJournal;
+        this.idempotencyService = idempotencyService;
+        this.conferenceAdmissionLimiter = conferenceAdmissionLimiter;
+        this.archiveService = archiveService;
+        this.shardRouter = shardRouter;
+        this.pendingOperations = pendingOperations;
+    }
+
+    // Create Soumission from DTO, once per Idempotency-Key. Not transactional: IdempotencyService runs
+    // the creation in its own transaction and publishes the id only after that transaction commits
+    public Soumission createFromDTO(SoumissionDTO soumissionDTO, String idempotencyKey) {
+        byte[] empreinte = IdempotencyService.empreinte(soumissionDTO.getAuteurId(), soumissionDTO.getConferenceId(),
+                soumissionDTO.getTitreArticle(), soumissionDTO.getResume(), soumissionDTO.getEtat(),
+                soumissionDTO.getDateSoumission(), soumissionDTO.getCoAuteurs(), soumissionDTO.getEvaluateurs(),
+                soumissionDTO.getDocumentPdf());
+        // Only the id is kept; a replay reloads the submission
+        return idempotencyService.execute("soumission", idempotencyKey, empreinte, () -> createFromDTO(soumissionDTO),
+                Soumission::getId, this::findById);
     }
 
-    // Create Soumission from DTO
+    // Create Soumission from DTO, within the conference's admission limit and on the conference's shard
+    @Transactional
     public Soumission createFromDTO(SoumissionDTO soumissionDTO) {
+        // Validate ids before unboxing them
+        if (soumissionDTO.getConferenceId() == null) {
+            throw new IllegalArgumentException("L'ID de la conférence est obligatoire.");
+        }
+        if (soumissionDTO.getAuteurId() == null) {
+            throw new IllegalArgumentException("L'ID de l'auteur principal est obligatoire.");
+        }
+        int conferenceId = soumissionDTO.getConferenceId();
+        return conferenceAdmissionLimiter.withPermit(conferenceId,
+                () -> shardRouter.onEntity(conferenceId, () -> doCreateFromDTO(soumissionDTO)));
+    }
+
+    private Soumission doCreateFromDTO(SoumissionDTO soumissionDTO) {
         // Retrieve Auteur
         Utilisateur auteur = utilisateurRepository.findById(soumissionDTO.getAuteurId())
                 .orElseThrow(() -> new ResourceNotFoundException("Auteur introuvable avec l'ID : " + soumissionDTO.getAuteurId()));
@@ -42,6 +98,10 @@ public class SoumissionService {
         Conference conference = conferenceRepository.findById(soumissionDTO.getConferenceId())
                 .orElseThrow(() -> new ResourceNotFoundException("Conférence introuvable avec l'ID : " + soumissionDTO.getConferenceId()));
 
+        // Refuse writes under a conference or a user pending deletion
+        pendingOperations.verifierModifiable(Cible.CONFERENCE, conference.getId());
+        pendingOperations.verifierModifiable(Cible.UTILISATEUR, auteur.getId());
+
         // Validate author's role
         if (!auteur.aLeRole(Role.AUTEUR, conference)) {
             throw new IllegalArgumentException("L'utilisateur n'est pas un auteur pour cette conférence.");
@@ -71,6 +131,7 @@ public class SoumissionService {
             for (Integer coAuteurId : soumissionDTO.getCoAuteurs()) {
                 Utilisateur coAuteur = utilisateurRepository.findById(coAuteurId)
                         .orElseThrow(() -> new ResourceNotFoundException("Co-auteur introuvable avec l'ID : " + coAuteurId));
+                pendingOperations.verifierModifiable(Cible.UTILISATEUR, coAuteurId);
                 coAuteurs.add(coAuteur);
             }
         }
@@ -82,85 +143,127 @@ public class SoumissionService {
             for (Integer evaluateurId : soumissionDTO.getEvaluateurs()) {
                 Utilisateur evaluateur = utilisateurRepository.findById(evaluateurId)
                         .orElseThrow(() -> new ResourceNotFoundException("Évaluateur introuvable avec l'ID : " + evaluateurId));
+                pendingOperations.verifierModifiable(Cible.UTILISATEUR, evaluateurId);
                 evaluateurs.add(evaluateur);
             }
         }
         soumission.setEvaluateurs(evaluateurs);
 
         // Save and return
-        return soumissionRepository.save(soumission);
+        Soumission saved = soumissionRepository.save(soumission);
+        auditJournal.record(AuditEntityType.SOUMISSION, saved.getId(), null, saved.getEtat());
+        return saved;
     }
 
     // Find all submissions
+    @Transactional(readOnly = true)
     public List<Soumission> findAll() {
-        return soumissionRepository.findAll();
+        return shardRouter.fanOut(() -> avecEvaluateurs(soumissionRepository.findAllWithAssociations()));
     }
 
     // Find submission by ID
+    @Transactional(readOnly = true)
     public Soumission findById(int id) {
-        return soumissionRepository.findById(id)
+        return shardRouter.onEntity(id, () -> soumissionRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Soumission introuvable avec l'ID : " + id));
     }
 
     // Update an existing submission
+    @Transactional
     public Soumission update(int id, Soumission soumissionDetails) {
-        Soumission existingSoumission = findById(id);
+        return shardRouter.onEntity(id, () -> {
+            Soumission existingSoumission = findById(id);
+            pendingOperations.verifierModifiable(Cible.CONFERENCE, existingSoumission.getConference().getId());
+            SoumissionEtat ancienEtat = existingSoumission.getEtat();
 
-        existingSoumission.setTitreArticle(soumissionDetails.getTitreArticle());
-        existingSoumission.setResume(soumissionDetails.getResume());
-        existingSoumission.setEtat(soumissionDetails.getEtat());
+            existingSoumission.setTitreArticle(soumissionDetails.getTitreArticle());
+            existingSoumission.setResume(soumissionDetails.getResume());
+            existingSoumission.setEtat(soumissionDetails.getEtat());
 
-        if (soumissionDetails.getDateSoumission() != null) {
-            existingSoumission.setDateSoumission(soumissionDetails.getDateSoumission());
-        }
+            if (soumissionDetails.getDateSoumission() != null) {
+                existingSoumission.setDateSoumission(soumissionDetails.getDateSoumission());
+            }
 
-        existingSoumission.setConference(soumissionDetails.getConference());
-        existingSoumission.setAuteur(soumissionDetails.getAuteur());
-        existingSoumission.setCoAuteurs(soumissionDetails.getCoAuteurs());
-        existingSoumission.setEvaluateurs(soumissionDetails.getEvaluateurs());
-        existingSoumission.setDocumentPdf(soumissionDetails.getDocumentPdf());
+            existingSoumission.setConference(soumissionDetails.getConference());
+            existingSoumission.setAuteur(soumissionDetails.getAuteur());
+            existingSoumission.setCoAuteurs(soumissionDetails.getCoAuteurs());
+            existingSoumission.setEvaluateurs(soumissionDetails.getEvaluateurs());
+            existingSoumission.setDocumentPdf(soumissionDetails.getDocumentPdf());
 
-        return soumissionRepository.save(existingSoumission);
+            Soumission saved = soumissionRepository.save(existingSoumission);
+            auditJournal.recordIfChanged(AuditEntityType.SOUMISSION, id, ancienEtat, saved.getEtat());
+            return saved;
+        });
     }
 
     // Delete a submission
+    @Transactional
     public void delete(int id) {
-        Soumission soumission = findById(id);
-        soumissionRepository.delete(soumission);
+        shardRouter.onEntity(id, () -> {
+            Soumission soumission = findById(id);
+            pendingOperations.verifierModifiable(Cible.CONFERENCE, soumission.getConference().getId());
+            pendingOperations.verifierModifiable(Cible.UTILISATEUR, soumission.getAuteur().getId());
+            soumissionRepository.delete(soumission);
+        });
     }
 
     // Assign an evaluator to a submission
+    @Transactional
     public Soumission assignEvaluateur(int soumissionId, int evaluateurId) {
-        Soumission soumission = findById(soumissionId);
-        Utilisateur evaluateur = utilisateurRepository.findById(evaluateurId)
-                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur introuvable avec l'ID : " + evaluateurId));
+        return shardRouter.onEntity(soumissionId, () -> {
+            Soumission soumission = findById(soumissionId);
+            Utilisateur evaluateur = utilisateurRepository.findById(evaluateurId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Utilisateur introuvable avec l'ID : " + evaluateurId));
+            pendingOperations.verifierModifiable(Cible.CONFERENCE, soumission.getConference().getId());
+            pendingOperations.verifierModifiable(Cible.UTILISATEUR, evaluateurId);
 
-        // Ensure the user has the "EVALUATEUR" role for the associated conference
-        if (!evaluateur.aLeRole(Role.EVALUATEUR, soumission.getConference())) {
-            throw new IllegalArgumentException("L'utilisateur n'est pas un évaluateur pour cette conférence.");
-        }
+            // Ensure the user has the "EVALUATEUR" role for the associated conference
+            if (!evaluateur.aLeRole(Role.EVALUATEUR, soumission.getConference())) {
+                throw new IllegalArgumentException("L'utilisateur n'est pas un évaluateur pour cette conférence.");
+            }
 
-        // Add the evaluator to the submission if not already assigned
-        if (!soumission.getEvaluateurs().contains(evaluateur)) {
-            soumission.getEvaluateurs().add(evaluateur);
-            return soumissionRepository.save(soumission);
-        }
+            // Add the evaluator to the submission if not already assigned
+            if (!soumission.getEvaluateurs().contains(evaluateur)) {
+                soumission.getEvaluateurs().add(evaluateur);
+                return soumissionRepository.save(soumission);
+            }
 
-        throw new IllegalArgumentException("Évaluateur déjà assigné.");
+            throw new IllegalArgumentException("Évaluateur déjà assigné.");
+        });
     }
 
     // Get submissions by conference
+    @Transactional(readOnly = true)
     public List<Soumission> getSoumissionsByConference(int conferenceId) {
-        return soumissionRepository.findByConferenceId(conferenceId);
+        if (cascadeDeleteService.isConferenceDeleted(conferenceId)) {
+            return List.of();
+        }
+        if (archiveService.isArchived(conferenceId)) {
+            return archiveService.getSoumissions(conferenceId);
+        }
+        return shardRouter.onEntity(conferenceId, () -> soumissionRepository.findByConferenceId(conferenceId));
     }
 
     // Get submissions by author
+    @Transactional(readOnly = true)
     public List<Soumission> getSoumissionsByAuteur(int auteurId) {
-        return soumissionRepository.findByAuteurId(auteurId);
+        return shardRouter.fanOut(() -> avecEvaluateurs(soumissionRepository.findByAuteurIdWithAssociations(auteurId)));
     }
 
     // Get submissions by status
+    @Transactional(readOnly = true)
     public List<Soumission> getSoumissionsByEtat(String etat) {
-        return soumissionRepository.findByEtat(etat);
+        SoumissionEtat etatRecherche = SoumissionEtat.valueOf(etat);
+        return shardRouter.fanOut(() -> avecEvaluateurs(soumissionRepository.findByEtatWithAssociations(etatRecherche)));
+    }
+
+    // Load the evaluators of submissions read in the same persistence context, in batches, before
+    // they are detached: a second fetch join avoids fetching two collections in one query
+    private List<Soumission> avecEvaluateurs(List<Soumission> soumissions) {
+        List<Integer> ids = soumissions.stream().map(Soumission::getId).toList();
+        for (int debut = 0; debut < ids.size(); debut += LOT_EVALUATEURS) {
+            soumissionRepository.fetchEvaluateursByIdIn(ids.subList(debut, Math.min(ids.size(), debut + LOT_EVALUATEURS)));
+        }
+        return soumissions;
     }
 }
@@ -0,0 +1,502 @@
+package com.conference.api.tools;
+
+import com.conference.api.config.ShardRouter;
+import com.conference.api.entities.Conference;
+import com.conference.api.entities.ConferenceEtat;
+import com.conference.api.entities.Evaluation;
+import com.conference.api.entities.EvaluationEtat;
+import com.conference.api.entities.Role;
+import com.conference.api.entities.Soumission;
+import com.conference.api.entities.SoumissionEtat;
+import com.conference.api.entities.UserRole;
+import com.conference.api.entities.Utilisateur;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.AttributeMapping;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+// Génère un jeu de données synthétique reproductible (même graine, mêmes données).
+// Activé par le profil « seed ». Les lignes sont insérées par JDBC en lots (batchUpdate) :
+// avec des identifiants IDENTITY, Hibernate exécute chaque persist() immédiatement et ne peut
+// pas regrouper les INSERT. Tables et colonnes sont lues dans le métamodèle Hibernate.
+// Avec le partitionnement, les utilisateurs et rôles globaux sont écrits sur la partition 0 puis
+// copiés avec les mêmes identifiants sur les autres ; la conférence i est placée sur la partition
+// i mod n avec ses rôles, soumissions et évaluations.
+// En fin de génération, la réserve d'identifiants de LoadDriver (app.seed.load-pool) est lue dans les
+// tables écrites : les auteurs viennent des rôles AUTEUR, les évaluateurs des affectations et des comités.
+@Component
+@Profile("seed")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    private static final String[] THEMATIQUES = {"Intelligence Artificielle", "Systèmes distribués", "Sécurité",
+            "Bases de données", "Génie logiciel", "Réseaux", "Vision par ordinateur", "Bio-informatique"};
+    private static final int EVALUATEURS_PAR_CONFERENCE = 12;
+    private static final int EVALUATEURS_PAR_SOUMISSION = 3;
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final int partitions;
+    private final TransactionTemplate transactionTemplate;
+    private final SplittableRandom random;
+    private final int nbUtilisateurs;
+    private final int nbConferences;
+    private final int nbSoumissions;
+    private final int nbEvaluations;
+    private final int tailleLot;
+    private final Path fichierReserve;
+    private final int tailleReserve;
+
+    public SyntheticDataGenerator(EntityManagerFactory entityManagerFactory,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ShardRouter shardRouter,
+                                  @Value("${app.seed.random-seed:42}") long graine,
+                                  @Value("${app.seed.users:20000}") int nbUtilisateurs,
+                                  @Value("${app.seed.conferences:1000}") int nbConferences,
+                                  @Value("${app.seed.submissions:200000}") int nbSoumissions,
+                                  @Value("${app.seed.evaluations:1000000}") int nbEvaluations,
+                                  @Value("${app.seed.batch-size:1000}") int tailleLot,
+                                  @Value("${app.seed.load-pool:target/load-pool.txt}") Path fichierReserve,
+                                  @Value("${app.seed.load-pool-size:10000}") int tailleReserve) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.partitions = shardRouter.getPartitions();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.random = new SplittableRandom(graine);
+        this.nbUtilisateurs = nbUtilisateurs;
+        this.nbConferences = nbConferences;
+        this.nbSoumissions = nbSoumissions;
+        this.nbEvaluations = nbEvaluations;
+        this.tailleLot = tailleLot;
+        this.fichierReserve = fichierReserve;
+        this.tailleReserve = tailleReserve;
+    }
+
+    @Override
+    public void run(String... args) {
+        long debut = System.nanoTime();
+        int nbEditeurs = Math.max(1, nbConferences / 10);
+
+        Insertion insertionUtilisateurs = new Insertion(Utilisateur.class, true, "nom", "prenom", "email");
+        Insertion insertionRolesGlobaux = new Insertion(UserRole.class, true, "utilisateur", "role", "conference");
+        Insertion insertionRoles = new Insertion(UserRole.class, false, "utilisateur", "role", "conference");
+        Insertion insertionConferences = new Insertion(Conference.class, false,
+                "titre", "thematique", "dateDebut", "dateFin", "etat", "createur");
+        Insertion insertionSoumissions = new Insertion(Soumission.class, false,
+                "titreArticle", "resume", "etat", "documentPdf", "dateSoumission", "auteur", "conference");
+        Jointure coAuteursDeSoumission = new Jointure(Soumission.class, "coAuteurs");
+        Jointure evaluateursDeSoumissionJointure = new Jointure(Soumission.class, "evaluateurs");
+        Insertion insertionEvaluations = new Insertion(Evaluation.class, false,
+                "note", "commentaires", "etat", "dateEvaluation", "soumission", "evaluateur");
+
+        // Utilisateurs : les premiers sont éditeurs, les autres auteurs et évaluateurs
+        int[] utilisateurs = new int[nbUtilisateurs];
+        int[] rolesEditeurs = new int[nbEditeurs];
+        parLots("utilisateurs", nbUtilisateurs, i -> insertionUtilisateurs.ajouter(0, i,
+                "Nom" + i, "Prenom" + i, "utilisateur" + i + "@example.com"), (partition, premier, fin) -> {
+            insertionUtilisateurs.executer(partition, utilisateurs);
+            if (partition == 0) {
+                for (int i = premier; i < Math.min(fin, nbEditeurs); i++) {
+                    insertionRolesGlobaux.ajouter(0, i, utilisateurs[i], Role.EDITEUR, null);
+                }
+            }
+            insertionRolesGlobaux.executer(partition, rolesEditeurs);
+        });
+
+        // Conférences et leur comité d'évaluateurs
+        int[] conferences = new int[nbConferences];
+        int[][] comites = new int[nbConferences][EVALUATEURS_PAR_CONFERENCE];
+        ConferenceEtat[] etatsConference = ConferenceEtat.values();
+        parLots("conférences", nbConferences, i -> {
+            LocalDate dateDebut = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(2500));
+            insertionConferences.ajouter(partitionDe(i), i,
+                    "Conférence " + i, THEMATIQUES[random.nextInt(THEMATIQUES.length)],
+                    dateDebut, dateDebut.plusDays(1 + random.nextInt(5)),
+                    etatsConference[random.nextInt(etatsConference.length)],
+                    utilisateurs[random.nextInt(nbEditeurs)]);
+            for (int j = 0; j < EVALUATEURS_PAR_CONFERENCE; j++) {
+                comites[i][j] = utilisateurs[nbEditeurs + random.nextInt(nbUtilisateurs - nbEditeurs)];
+            }
+        }, (partition, premier, fin) -> {
+            insertionConferences.executer(partition, conferences);
+            for (int i = premier; i < fin; i++) {
+                if (partitionDe(i) != partition) {
+                    continue;
+                }
+                for (int j = 0; j < EVALUATEURS_PAR_CONFERENCE; j++) {
+                    insertionRoles.ajouter(partition, -1, comites[i][j], Role.EVALUATEUR, conferences[i]);
+                }
+            }
+            insertionRoles.executer(partition, null);
+        });
+
+        // Soumissions : auteur, co-auteurs et évaluateurs tirés au hasard, rôle AUTEUR créé au besoin
+        int[] soumissions = new int[nbSoumissions];
+        int[] conferenceDe = new int[nbSoumissions];
+        int[][] coAuteursDe = new int[nbSoumissions][];
+        int[][] evaluateursDeSoumission = new int[nbSoumissions][EVALUATEURS_PAR_SOUMISSION];
+        Set<Long> auteursInscrits = new HashSet<>();
+        SoumissionEtat[] etatsSoumission = SoumissionEtat.values();
+        parLots("soumissions", nbSoumissions, i -> {
+            int indexConference = random.nextInt(nbConferences);
+            int partition = partitionDe(indexConference);
+            conferenceDe[i] = indexConference;
+            int auteurId = utilisateurs[nbEditeurs + random.nextInt(nbUtilisateurs - nbEditeurs)];
+            if (auteursInscrits.add(((long) auteurId << 32) | indexConference)) {
+                insertionRoles.ajouter(partition, -1, auteurId, Role.AUTEUR, conferences[indexConference]);
+            }
+            insertionSoumissions.ajouter(partition, i, "Article " + i,
+                    "Résumé synthétique de l'article " + i + " pour les tests de charge.",
+                    etatsSoumission[random.nextInt(etatsSoumission.length)],
+                    "/documents/article-" + i + ".pdf",
+                    new Date(1_577_836_800_000L + random.nextLong(200_000_000_000L)),
+                    auteurId, conferences[indexConference]);
+            int[] coAuteurs = new int[random.nextInt(4)];
+            for (int c = 0; c < coAuteurs.length; c++) {
+                coAuteurs[c] = utilisateurs[nbEditeurs + random.nextInt(nbUtilisateurs - nbEditeurs)];
+            }
+            coAuteursDe[i] = coAuteurs;
+            int premier = random.nextInt(EVALUATEURS_PAR_CONFERENCE);
+            for (int e = 0; e < EVALUATEURS_PAR_SOUMISSION; e++) {
+                evaluateursDeSoumission[i][e] = comites[indexConference][(premier + e) % EVALUATEURS_PAR_CONFERENCE];
+            }
+        }, (partition, premier, fin) -> {
+            insertionRoles.executer(partition, null);
+            insertionSoumissions.executer(partition, soumissions);
+            for (int i = premier; i < fin; i++) {
+                if (partitionDe(conferenceDe[i]) != partition) {
+                    continue;
+                }
+                coAuteursDeSoumission.ajouter(soumissions[i], coAuteursDe[i]);
+                evaluateursDeSoumissionJointure.ajouter(soumissions[i], evaluateursDeSoumission[i]);
+                coAuteursDe[i] = null;
+            }
+            coAuteursDeSoumission.executer();
+            evaluateursDeSoumissionJointure.executer();
+        });
+
+        // Évaluations réparties sur les soumissions, par un évaluateur assigné
+        EvaluationEtat[] etatsEvaluation = EvaluationEtat.values();
+        parLots("évaluations", nbEvaluations, i -> {
+            int indexSoumission = random.nextInt(nbSoumissions);
+            insertionEvaluations.ajouter(partitionDe(conferenceDe[indexSoumission]), -1,
+                    1 + random.nextInt(10), "Commentaire synthétique " + i,
+                    etatsEvaluation[random.nextInt(etatsEvaluation.length)],
+                    new Date(1_577_836_800_000L + random.nextLong(200_000_000_000L)),
+                    soumissions[indexSoumission],
+                    evaluateursDeSoumission[indexSoumission][random.nextInt(EVALUATEURS_PAR_SOUMISSION)]);
+        }, (partition, premier, fin) -> insertionEvaluations.executer(partition, null));
+
+        log.info("Jeu de données généré en {} s", (System.nanoTime() - debut) / 1_000_000_000);
+        exporterReserve();
+    }
+
+    // Réserve de LoadDriver : un groupe par marqueur du mélange, au plus tailleReserve lignes chacun,
+    // prises sur toutes les partitions. Une soumission n'est créée que par un auteur inscrit à la
+    // conférence, une évaluation que par un évaluateur affecté qui n'est pas co-auteur, et une
+    // affectation ne propose qu'un membre du comité pas encore affecté
+    private void exporterReserve() {
+        String roles = table(UserRole.class);
+        String roleUtilisateur = colonne(UserRole.class, "utilisateur");
+        String roleConference = colonne(UserRole.class, "conference");
+        String roleType = colonne(UserRole.class, "role");
+        String soumissions = table(Soumission.class);
+        String soumissionId = colonne(Soumission.class, null);
+        String soumissionConference = colonne(Soumission.class, "conference");
+        AbstractCollectionPersister evaluateurs = jointure(Soumission.class, "evaluateurs");
+        AbstractCollectionPersister coAuteurs = jointure(Soumission.class, "coAuteurs");
+        String affectations = evaluateurs.getTableName();
+        String affectationSoumission = evaluateurs.getKeyColumnNames()[0];
+        String affectationEvaluateur = evaluateurs.getElementColumnNames()[0];
+
+        try (BufferedWriter sortie = Files.newBufferedWriter(fichierReserve)) {
+            groupe(sortie, "conference id", true,
+                    "SELECT " + colonne(Conference.class, null) + " FROM " + table(Conference.class));
+            groupe(sortie, "utilisateur id email", false,
+                    "SELECT " + colonne(Utilisateur.class, null) + ", " + colonne(Utilisateur.class, "email")
+                            + " FROM " + table(Utilisateur.class));
+            groupe(sortie, "soumission id", true, "SELECT " + soumissionId + " FROM " + soumissions);
+            groupe(sortie, "evaluation id", true,
+                    "SELECT " + colonne(Evaluation.class, null) + " FROM " + table(Evaluation.class));
+            groupe(sortie, "role id", true, "SELECT " + colonne(UserRole.class, null) + " FROM " + roles
+                    + " WHERE " + roleConference + " IS NOT NULL");
+            groupe(sortie, "auteur conference utilisateur", true, "SELECT " + roleConference + ", " + roleUtilisateur
+                    + " FROM " + roles + " WHERE " + roleType + " = ? AND " + roleConference + " IS NOT NULL",
+                    valeurRole(Role.AUTEUR));
+            groupe(sortie, "affectation soumission evaluateur", true, "SELECT a." + affectationSoumission
+                    + ", a." + affectationEvaluateur + " FROM " + affectations + " a WHERE NOT EXISTS (SELECT 1 FROM "
+                    + coAuteurs.getTableName() + " c WHERE c." + coAuteurs.getKeyColumnNames()[0] + " = a."
+                    + affectationSoumission + " AND c." + coAuteurs.getElementColumnNames()[0] + " = a."
+                    + affectationEvaluateur + ")");
+            groupe(sortie, "candidat soumission evaluateur", true, "SELECT s." + soumissionId + ", r." + roleUtilisateur
+                    + " FROM " + soumissions + " s JOIN " + roles + " r ON r." + roleConference + " = s."
+                    + soumissionConference + " WHERE r." + roleType + " = ? AND NOT EXISTS (SELECT 1 FROM "
+                    + affectations + " a WHERE a." + affectationSoumission + " = s." + soumissionId + " AND a."
+                    + affectationEvaluateur + " = r." + roleUtilisateur + ")", valeurRole(Role.EVALUATEUR));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Échec de l'écriture de la réserve " + fichierReserve, e);
+        }
+        log.info("Réserve de LoadDriver écrite dans {}", fichierReserve);
+    }
+
+    // Écrire l'en-tête « @groupe champs... » puis une ligne « groupe valeurs... » par ligne lue ;
+    // un groupe partitionné est lu sur chaque partition, les données de référence sur la partition 0
+    private void groupe(BufferedWriter sortie, String entete, boolean partitionne, String sql, Object... parametres)
+            throws IOException {
+        String nom = entete.substring(0, entete.indexOf(' '));
+        sortie.write("@" + entete);
+        sortie.newLine();
+        int nbPartitions = partitionne ? partitions : 1;
+        int parPartition = Math.max(1, tailleReserve / nbPartitions);
+        for (int p = 0; p < nbPartitions; p++) {
+            List<String> lignes = shardRouter.onShard(p, () -> jdbcTemplate.query(sql + " LIMIT " + parPartition,
+                    (rs, rang) -> {
+                        StringBuilder ligne = new StringBuilder(nom);
+                        for (int c = 1; c <= rs.getMetaData().getColumnCount(); c++) {
+                            ligne.append(' ').append(rs.getString(c));
+                        }
+                        return ligne.toString();
+                    }, parametres));
+            for (String ligne : lignes) {
+                sortie.write(ligne);
+                sortie.newLine();
+            }
+        }
+    }
+
+    private AbstractEntityPersister persister(Class<?> entite) {
+        return (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(entite);
+    }
+
+    private String table(Class<?> entite) {
+        return persister(entite).getTableName();
+    }
+
+    // Colonne d'une propriété, ou de l'identifiant si propriete est null
+    private String colonne(Class<?> entite, String propriete) {
+        AbstractEntityPersister persister = persister(entite);
+        return propriete == null ? persister.getIdentifierColumnNames()[0] : persister.getPropertyColumnNames(propriete)[0];
+    }
+
+    private AbstractCollectionPersister jointure(Class<?> proprietaire, String association) {
+        return (AbstractCollectionPersister) sessionFactory.getMappingMetamodel()
+                .getCollectionDescriptor(proprietaire.getName() + "." + association);
+    }
+
+    private Object valeurRole(Role role) {
+        return persister(UserRole.class).findAttributeMapping("role").getSingleJdbcMapping().convertToRelationalValue(role);
+    }
+
+    // Préparer chaque lot ligne par ligne, puis l'écrire en une transaction par partition, en journalisant le débit
+    private void parLots(String libelle, int total, IntConsumer generateur, FinDeLot finDeLot) {
+        long debut = System.nanoTime();
+        for (int depart = 0; depart < total; depart += tailleLot) {
+            int fin = Math.min(total, depart + tailleLot);
+            int premier = depart;
+            for (int i = premier; i < fin; i++) {
+                generateur.accept(i);
+            }
+            // Partition 0 d'abord : les copies des données de référence reprennent ses identifiants
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                shardRouter.onShard(partition, () -> transactionTemplate.executeWithoutResult(
+                        status -> finDeLot.ecrire(partition, premier, fin)));
+            }
+        }
+        double secondes = Math.max(1, System.nanoTime() - debut) / 1e9;
+        log.info("{} {} insérés en {} s ({} lignes/s)", total, libelle, String.format("%.1f", secondes),
+                Math.round(total / secondes));
+    }
+
+    // Partition d'une conférence d'après son rang de génération (placement en tourniquet)
+    private int partitionDe(int indexConference) {
+        return indexConference % partitions;
+    }
+
+    @FunctionalInterface
+    private interface FinDeLot {
+        void ecrire(int partition, int premier, int fin);
+    }
+
+    // INSERT groupé dans la table d'une entité ; les valeurs sont converties selon le mapping
+    // Hibernate de chaque attribut (énumérations en ordinal ou en texte, associations par identifiant).
+    // Les lignes sont rangées par partition ; une ligne de référence est écrite sur la partition 0,
+    // puis recopiée avec l'identifiant obtenu sur chacune des autres partitions.
+    private final class Insertion {
+
+        private final String sql;
+        private final String sqlAvecId;
+        private final String colonneId;
+        private final AttributeMapping[] attributs;
+        private final boolean reference;
+        private final List<List<Ligne>> lignes = new ArrayList<>();
+
+        private Insertion(Class<?> entite, boolean reference, String... proprietes) {
+            AbstractEntityPersister persister = persister(entite);
+            List<String> colonnes = new ArrayList<>();
+            attributs = new AttributeMapping[proprietes.length];
+            for (int i = 0; i < proprietes.length; i++) {
+                colonnes.add(persister.getPropertyColumnNames(proprietes[i])[0]);
+                attributs[i] = persister.findAttributeMapping(proprietes[i]);
+            }
+            colonneId = persister.getIdentifierColumnNames()[0];
+            sql = "INSERT INTO " + persister.getTableName() + " (" + String.join(", ", colonnes) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(colonnes.size(), "?")) + ")";
+            sqlAvecId = "INSERT INTO " + persister.getTableName() + " (" + colonneId + ", " + String.join(", ", colonnes)
+                    + ") VALUES (" + String.join(", ", Collections.nCopies(colonnes.size() + 1, "?")) + ")";
+            this.reference = reference;
+            for (int p = 0; p < partitions; p++) {
+                lignes.add(new ArrayList<>());
+            }
+        }
+
+        // Ajouter une ligne destinée à une partition ; index : rang où ranger l'identifiant généré (-1 sinon)
+        void ajouter(int partition, int index, Object... valeurs) {
+            Object[] ligne = new Object[valeurs.length];
+            for (int i = 0; i < valeurs.length; i++) {
+                ligne[i] = versJdbc(attributs[i], valeurs[i]);
+            }
+            lignes.get(reference ? 0 : partition).add(new Ligne(index, ligne));
+        }
+
+        // Écrire les lignes de la partition, dans sa transaction ; ids reçoit les identifiants générés
+        void executer(int partition, int[] ids) {
+            if (reference && partition > 0) {
+                copier(ids);
+                if (partition == partitions - 1) {
+                    lignes.get(0).clear();
+                }
+                return;
+            }
+            List<Ligne> aEcrire = lignes.get(partition);
+            if (aEcrire.isEmpty()) {
+                return;
+            }
+            if (ids == null) {
+                jdbcTemplate.batchUpdate(sql, aEcrire.stream().map(Ligne::valeurs).toList());
+            } else {
+                executerAvecIds(aEcrire, ids);
+            }
+            if (!reference || partitions == 1) {
+                aEcrire.clear();
+            }
+        }
+
+        // Recopier les lignes de référence de la partition 0 avec leurs identifiants
+        private void copier(int[] ids) {
+            List<Object[]> copies = new ArrayList<>();
+            for (Ligne ligne : lignes.get(0)) {
+                Object[] copie = new Object[ligne.valeurs().length + 1];
+                copie[0] = ids[ligne.index()];
+                System.arraycopy(ligne.valeurs(), 0, copie, 1, ligne.valeurs().length);
+                copies.add(copie);
+            }
+            if (!copies.isEmpty()) {
+                jdbcTemplate.batchUpdate(sqlAvecId, copies);
+            }
+        }
+
+        // Écrire le lot et ranger chaque identifiant généré au rang de sa ligne
+        private void executerAvecIds(List<Ligne> aEcrire, int[] ids) {
+            GeneratedKeyHolder cles = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connexion -> connexion.prepareStatement(sql, new String[] {colonneId}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Object[] ligne = aEcrire.get(i).valeurs();
+                            for (int c = 0; c < ligne.length; c++) {
+                                ps.setObject(c + 1, ligne[c]);
+                            }
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return aEcrire.size();
+                        }
+                    }, cles);
+            List<Map<String, Object>> generes = cles.getKeyList();
+            for (int i = 0; i < generes.size(); i++) {
+                ids[aEcrire.get(i).index()] = ((Number) generes.get(i).values().iterator().next()).intValue();
+            }
+        }
+
+        private Object versJdbc(AttributeMapping attribut, Object valeur) {
+            if (valeur == null) {
+                return null;
+            }
+            if (valeur instanceof Date date) {
+                return new Timestamp(date.getTime());
+            }
+            if (valeur instanceof Enum<?>) {
+                return attribut.getSingleJdbcMapping().convertToRelationalValue(valeur);
+            }
+            return valeur;
+        }
+    }
+
+    private record Ligne(int index, Object[] valeurs) {
+    }
+
+    // INSERT groupé dans la table de jointure d'une association @ManyToMany
+    private final class Jointure {
+
+        private final String sql;
+        private final boolean indexee;
+        private final List<Object[]> lignes = new ArrayList<>();
+
+        private Jointure(Class<?> proprietaire, String association) {
+            AbstractCollectionPersister persister = jointure(proprietaire, association);
+            indexee = persister.hasIndex();
+            String colonnes = persister.getKeyColumnNames()[0] + ", " + persister.getElementColumnNames()[0]
+                    + (indexee ? ", " + persister.getIndexColumnNames()[0] : "");
+            sql = "INSERT INTO " + persister.getTableName() + " (" + colonnes + ") VALUES (?, ?" + (indexee ? ", ?" : "") + ")";
+        }
+
+        void ajouter(int proprietaireId, int[] elements) {
+            for (int i = 0; i < elements.length; i++) {
+                lignes.add(indexee ? new Object[] {proprietaireId, elements[i], i} : new Object[] {proprietaireId, elements[i]});
+            }
+        }
+
+        void executer() {
+            if (!lignes.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, lignes);
+                lignes.clear();
+            }
+        }
+    }
+}
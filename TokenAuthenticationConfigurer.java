@@ -0,0 +1,46 @@
+package com.conference.api.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.stereotype.Component;
+
+// Mode sans état : à appliquer dans la chaîne de SecurityConfig via http.with(configurer, Customizer.withDefaults()).
+// Aucune chaîne de ce dépôt ne l'applique : tant que ce n'est pas fait, les jetons ne sont pas vérifiés
+// et un avertissement est journalisé au démarrage.
+@Component
+public class TokenAuthenticationConfigurer extends AbstractHttpConfigurer<TokenAuthenticationConfigurer, HttpSecurity> {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenAuthenticationConfigurer.class);
+
+    private final TokenService tokenService;
+    private volatile boolean applique;
+
+    public TokenAuthenticationConfigurer(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public void init(HttpSecurity http) throws Exception {
+        applique = true;
+        http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+    }
+
+    @Override
+    public void configure(HttpSecurity http) {
+        http.addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void signalerSiInactif() {
+        if (!applique) {
+            log.warn("Authentification par jeton inactive : TokenAuthenticationConfigurer n'est appliqué à aucune "
+                    + "SecurityFilterChain, les en-têtes Authorization: Bearer sont ignorés.");
+        }
+    }
+}
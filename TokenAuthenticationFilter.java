@@ -0,0 +1,46 @@
+package com.conference.api.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+// Authentifie les requêtes « Authorization: Bearer » à partir des seules revendications du jeton
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIXE = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String entete = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (entete == null || !entete.startsWith(PREFIXE)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Optional<CachedPrincipal> principal = tokenService.verify(entete.substring(PREFIXE.length()).trim());
+        if (principal.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Jeton invalide ou expiré");
+            return;
+        }
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal.get(), null,
+                principal.get().roles().stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role)).toList());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,17 @@
+package com.conference.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Jeton d'accès signé")
+public class TokenDTO {
+
+    @Schema(description = "Jeton à transmettre dans l'en-tête Authorization: Bearer")
+    private String token;
+
+    @Schema(description = "Durée de validité du jeton en secondes", example = "900")
+    private long expiresIn;
+}
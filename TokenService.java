@@ -0,0 +1,104 @@
+package com.conference.api.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+// Jetons signés HMAC-SHA256 portant l'ID utilisateur, l'email et les rôles.
+// Format : base64url(id:email:roles:expiration:authentification).base64url(signature)
+@Component
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    private static final String ALGORITHME = "HmacSHA256";
+    private static final Base64.Encoder ENCODEUR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODEUR = Base64.getUrlDecoder();
+
+    private final SecretKeySpec cle;
+    private final Duration validite;
+    private final ThreadLocal<Mac> macs;
+
+    public TokenService(@Value("${app.security.token.secret:}") String secret,
+                        @Value("${app.security.token.ttl-minutes:15}") long validiteMinutes) {
+        byte[] octets;
+        if (secret.isBlank()) {
+            // Sans secret partagé, les jetons ne sont valides que sur ce nœud et jusqu'au redémarrage
+            log.warn("app.security.token.secret non défini : utilisation d'une clé aléatoire");
+            octets = new byte[32];
+            new SecureRandom().nextBytes(octets);
+        } else {
+            octets = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.cle = new SecretKeySpec(octets, ALGORITHME);
+        this.validite = Duration.ofMinutes(validiteMinutes);
+        this.macs = ThreadLocal.withInitial(this::nouveauMac);
+    }
+
+    // Émettre un jeton pour un principal déjà authentifié, sans dépasser l'expiration maximale donnée
+    public String issue(CachedPrincipal principal, Instant expirationMax) {
+        long expiration = Math.min(Instant.now().plus(validite).getEpochSecond(), expirationMax.getEpochSecond());
+        String charge = principal.utilisateurId() + ":"
+                + ENCODEUR.encodeToString(principal.email().getBytes(StandardCharsets.UTF_8)) + ":"
+                + String.join(",", principal.roles()) + ":"
+                + expiration + ":"
+                + principal.authentifieLe();
+        String chargeEncodee = ENCODEUR.encodeToString(charge.getBytes(StandardCharsets.UTF_8));
+        return chargeEncodee + "." + ENCODEUR.encodeToString(signer(chargeEncodee));
+    }
+
+    // Vérifier signature et expiration ; aucun accès à la base
+    public Optional<CachedPrincipal> verify(String jeton) {
+        int point = jeton.indexOf('.');
+        if (point <= 0) {
+            return Optional.empty();
+        }
+        String chargeEncodee = jeton.substring(0, point);
+        try {
+            byte[] signature = DECODEUR.decode(jeton.substring(point + 1));
+            if (!MessageDigest.isEqual(signature, signer(chargeEncodee))) {
+                return Optional.empty();
+            }
+            String[] champs = new String(DECODEUR.decode(chargeEncodee), StandardCharsets.UTF_8).split(":", -1);
+            if (champs.length != 5 || Long.parseLong(champs[3]) < Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+            List<String> roles = champs[2].isEmpty() ? List.of() : Arrays.asList(champs[2].split(","));
+            String email = new String(DECODEUR.decode(champs[1]), StandardCharsets.UTF_8);
+            return Optional.of(new CachedPrincipal(Integer.parseInt(champs[0]), email, roles, Long.parseLong(champs[4])));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Duration getValidite() {
+        return validite;
+    }
+
+    private byte[] signer(String charge) {
+        return macs.get().doFinal(charge.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac nouveauMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHME);
+            mac.init(cle);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponible", e);
+        }
+    }
+}
@@ -2,11 +2,20 @@ package com.conference.api.repositories;
 
 import com.conference.api.entities.Role;
 import com.conference.api.entities.UserRole;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
@@ -19,6 +28,46 @@ public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
 
     // Retrieve UserRoles by Role
     List<UserRole> findByRole(Role role);
+
+    // Retrieve global / conference-bound UserRoles (sharding)
+    List<UserRole> findByConferenceIsNull();
+
+    List<UserRole> findByRoleAndConferenceIsNull(Role role);
+
+    List<UserRole> findByUtilisateurIdAndConferenceIsNotNull(int utilisateurId);
+
+    List<UserRole> findByUtilisateurIdAndConferenceIsNull(int utilisateurId);
+
+    // Conference-bound UserRoles with their user and conference loaded, read on every shard (fan-out)
+    @Query("SELECT ur FROM UserRole ur JOIN FETCH ur.utilisateur JOIN FETCH ur.conference")
+    List<UserRole> findByConferenceIsNotNullWithAssociations();
+
+    @Query("SELECT ur FROM UserRole ur JOIN FETCH ur.utilisateur JOIN FETCH ur.conference WHERE ur.role = :role")
+    List<UserRole> findByRoleAndConferenceIsNotNullWithAssociations(@Param("role") Role role);
     // Retrieve UserRole by User ID and Role
     Optional<UserRole> findByUtilisateurIdAndRole(int utilisateurId, Role role);
+
+    // Check for a global role of a user (sharding: the shard-local copy of the reference row)
+    boolean existsByUtilisateurIdAndRoleAndConferenceIsNull(int utilisateurId, Role role);
+
+    // Retrieve a page of UserRole IDs for a conference (cascade delete)
+    @Query("SELECT ur.id FROM UserRole ur WHERE ur.conference.id = :conferenceId ORDER BY ur.id")
+    List<Long> findIdsByConferenceId(@Param("conferenceId") int conferenceId, Pageable pageable);
+
+    // Stream the UserRoles of a conference, excluding one role (archiving)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT ur FROM UserRole ur WHERE ur.conference.id = :conferenceId AND ur.role <> :role ORDER BY ur.id")
+    Stream<UserRole> streamByConferenceIdAndRoleNot(@Param("conferenceId") int conferenceId, @Param("role") Role role);
+
+    // Count the UserRoles of a conference, excluding one role (archiving check)
+    long countByConferenceIdAndRoleNot(int conferenceId, Role role);
+
+    // Retrieve a page of UserRole IDs for a user (cascade delete)
+    @Query("SELECT ur.id FROM UserRole ur WHERE ur.utilisateur.id = :utilisateurId ORDER BY ur.id")
+    List<Long> findIdsByUtilisateurId(@Param("utilisateurId") int utilisateurId, Pageable pageable);
+
+    // Bulk delete a batch of UserRoles
+    @Modifying
+    @Query("DELETE FROM UserRole ur WHERE ur.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -1,13 +1,21 @@
 package com.conference.api.services;
 
+import com.conference.api.audit.AuditEntityType;
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ReferenceDataReplicator;
+import com.conference.api.config.ShardRouter;
 import com.conference.api.entities.Conference;
+import com.conference.api.entities.PendingOperation.Cible;
 import com.conference.api.entities.Role;
 import com.conference.api.entities.UserRole;
 import com.conference.api.exceptions.ResourceNotFoundException;
 import com.conference.api.repositories.ConferenceRepository;
 import com.conference.api.repositories.UserRoleRepository;
+import com.conference.api.security.PrincipalCache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -15,64 +23,146 @@ public class UserRoleService {
 
     private final UserRoleRepository userRoleRepository;
     private final ConferenceRepository conferenceRepository;
+    private final AuditJournal auditJournal;
+    private final PrincipalCache principalCache;
+    private final ShardRouter shardRouter;
+    private final PendingOperationService pendingOperations;
+    private final ReferenceDataReplicator replicator;
 
     // Injection des dépendances via le constructeur
-    public UserRoleService(UserRoleRepository userRoleRepository, ConferenceRepository conferenceRepository) {
+    public UserRoleService(UserRoleRepository userRoleRepository, ConferenceRepository conferenceRepository,
+                           AuditJournal auditJournal, PrincipalCache principalCache, ShardRouter shardRouter,
+                           PendingOperationService pendingOperations, ReferenceDataReplicator replicator) {
         this.userRoleRepository = userRoleRepository;
         this.conferenceRepository = conferenceRepository;
+        this.auditJournal = auditJournal;
+        this.principalCache = principalCache;
+        this.shardRouter = shardRouter;
+        this.pendingOperations = pendingOperations;
+        this.replicator = replicator;
     }
 
-    // Trouver tous les rôles utilisateur
+    // Trouver tous les rôles utilisateur : rôles globaux (répliqués) de la partition 0,
+    // rôles liés à une conférence sur toutes les partitions
+    @Transactional(readOnly = true)
     public List<UserRole> findAll() {
-        return userRoleRepository.findAll();
+        if (shardRouter.getPartitions() == 1) {
+            return userRoleRepository.findAll();
+        }
+        List<UserRole> roles = new ArrayList<>(shardRouter.onShard(0, () -> userRoleRepository.findByConferenceIsNull()));
+        roles.addAll(shardRouter.fanOut(userRoleRepository::findByConferenceIsNotNullWithAssociations));
+        return roles;
     }
 
     // Trouver un rôle utilisateur par ID
+    @Transactional(readOnly = true)
     public UserRole findById(Long id) {
-        return userRoleRepository.findById(id)
+        return shardRouter.findFirst(id, () -> userRoleRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Rôle avec l'ID " + id + " introuvable."));
     }
 
-    // Créer un rôle utilisateur
+    // Créer un rôle utilisateur : sur la partition de sa conférence, ou sur la partition 0
+    // puis copié avec le même identifiant sur les autres partitions s'il est global
+    @Transactional
     public UserRole save(UserRole userRole) {
         validateUserRole(userRole);
+        verifierModifiable(userRole);
 
+        UserRole saved;
         // Si une conférence est liée au rôle, vérifier qu'elle existe
         if (userRole.getConference() != null) {
-            Conference conference = conferenceRepository.findById(userRole.getConference().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Conférence introuvable avec l'ID fourni."));
-            userRole.setConference(conference);
+            int conferenceId = userRole.getConference().getId();
+            saved = shardRouter.onEntity(conferenceId, () -> {
+                Conference conference = conferenceRepository.findById(conferenceId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Conférence introuvable avec l'ID fourni."));
+                userRole.setConference(conference);
+                return userRoleRepository.save(userRole);
+            });
+        } else {
+            saved = shardRouter.onShard(0, () -> {
+                UserRole global = userRoleRepository.save(userRole);
+                replicator.synchroniser(UserRole.class, global.getId());
+                return global;
+            });
         }
-
-        return userRoleRepository.save(userRole);
+        auditJournal.record(AuditEntityType.USER_ROLE, saved.getId(), null, saved.getRole());
+        principalCache.invalidateAfterCommit(saved.getUtilisateur());
+        return saved;
     }
 
     // Mettre à jour un rôle utilisateur
+    @Transactional
     public UserRole update(Long id, UserRole userRoleDetails) {
-        UserRole existingRole = findById(id);
+        return shardRouter.onEntity(id, () -> {
+            UserRole existingRole = findById(id);
+            verifierPartition(existingRole, userRoleDetails);
+            Role ancienRole = existingRole.getRole();
+            // L'ancien titulaire perd ce rôle s'il change d'utilisateur
+            principalCache.invalidateAfterCommit(existingRole.getUtilisateur());
+
+            // Mettre à jour les champs pertinents
+            existingRole.setRole(userRoleDetails.getRole());
+            existingRole.setUtilisateur(userRoleDetails.getUtilisateur());
+
+            if (userRoleDetails.getConference() != null) {
+                Conference conference = conferenceRepository.findById(userRoleDetails.getConference().getId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Conférence introuvable avec l'ID fourni."));
+                existingRole.setConference(conference);
+            } else {
+                existingRole.setConference(null); // Suppression de l'association si nécessaire
+            }
+
+            validateUserRole(existingRole);
+            verifierModifiable(existingRole);
+            UserRole saved = userRoleRepository.save(existingRole);
+            if (saved.getConference() == null) {
+                replicator.synchroniser(UserRole.class, id);
+            }
+            auditJournal.recordIfChanged(AuditEntityType.USER_ROLE, id, ancienRole, saved.getRole());
+            principalCache.invalidateAfterCommit(saved.getUtilisateur());
+            return saved;
+        });
+    }
 
-        // Mettre à jour les champs pertinents
-        existingRole.setRole(userRoleDetails.getRole());
-        existingRole.setUtilisateur(userRoleDetails.getUtilisateur());
+    // Supprimer un rôle utilisateur par ID
+    @Transactional
+    public void deleteById(Long id) {
+        UserRole userRole = shardRouter.onEntity(id, () -> {
+            UserRole existant = userRoleRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Rôle avec l'ID " + id + " introuvable."));
+            userRoleRepository.delete(existant);
+            if (existant.getConference() == null) {
+                replicator.synchroniser(UserRole.class, id);
+            }
+            return existant;
+        });
+        auditJournal.record(AuditEntityType.USER_ROLE, id, userRole.getRole(), null);
+        principalCache.invalidateAfterCommit(userRole.getUtilisateur());
+    }
 
-        if (userRoleDetails.getConference() != null) {
-            Conference conference = conferenceRepository.findById(userRoleDetails.getConference().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Conférence introuvable avec l'ID fourni."));
-            existingRole.setConference(conference);
-        } else {
-            existingRole.setConference(null); // Suppression de l'association si nécessaire
+    // Un rôle partitionné ne change pas de partition : un rôle global (répliqué) ne peut pas être
+    // rattaché à une conférence, ni un rôle de conférence déplacé vers une autre partition
+    private void verifierPartition(UserRole existant, UserRole details) {
+        if (shardRouter.getPartitions() == 1) {
+            return;
+        }
+        if ((existant.getConference() == null) != (details.getConference() == null)) {
+            throw new IllegalArgumentException("Un rôle global ne peut pas devenir un rôle de conférence (ni l'inverse) : "
+                    + "supprimer le rôle puis le recréer.");
+        }
+        if (details.getConference() != null
+                && shardRouter.shardOf(details.getConference().getId()) != shardRouter.shardOf(existant.getId())) {
+            throw new IllegalArgumentException("Le rôle ne peut pas être rattaché à une conférence d'une autre partition : "
+                    + "supprimer le rôle puis le recréer.");
         }
-
-        validateUserRole(existingRole);
-        return userRoleRepository.save(existingRole);
     }
 
-    // Supprimer un rôle utilisateur par ID
-    public void deleteById(Long id) {
-        if (!userRoleRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Rôle avec l'ID " + id + " introuvable.");
+    // Refuser un rôle sous un utilisateur ou une conférence en cours de suppression
+    private void verifierModifiable(UserRole userRole) {
+        pendingOperations.verifierModifiable(Cible.UTILISATEUR, userRole.getUtilisateur().getId());
+        if (userRole.getConference() != null) {
+            pendingOperations.verifierModifiable(Cible.CONFERENCE, userRole.getConference().getId());
         }
-        userRoleRepository.deleteById(id);
     }
 
     // Valider les données du rôle utilisateur
@@ -1,6 +1,11 @@
 package com.conference.api.services;
 
+import com.conference.api.audit.AuditEntityType;
+import com.conference.api.audit.AuditJournal;
+import com.conference.api.config.ReferenceDataReplicator;
+import com.conference.api.config.ShardRouter;
 import com.conference.api.dto.UtilisateurDTO;
+import com.conference.api.entities.PendingOperation.Cible;
 import com.conference.api.entities.Role;
 import com.conference.api.entities.UserRole;
 import com.conference.api.entities.Utilisateur;
@@ -8,8 +13,11 @@ import com.conference.api.exceptions.ResourceNotFoundException;
 import com.conference.api.repositories.UtilisateurRepository;
 import com.conference.api.repositories.UserRoleRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,31 +25,52 @@ public class UtilisateurService {
 
     private final UtilisateurRepository utilisateurRepository;
     private final UserRoleRepository userRoleRepository;
-
-    public UtilisateurService(UtilisateurRepository utilisateurRepository, UserRoleRepository userRoleRepository) {
+    private final CascadeDeleteService cascadeDeleteService;
+    private final AuditJournal auditJournal;
+    private final ShardRouter shardRouter;
+    private final ReferenceDataReplicator replicator;
+    private final PendingOperationService pendingOperations;
+
+    public UtilisateurService(UtilisateurRepository utilisateurRepository, UserRoleRepository userRoleRepository,
+                              CascadeDeleteService cascadeDeleteService, AuditJournal auditJournal,
+                              ShardRouter shardRouter, ReferenceDataReplicator replicator,
+                              PendingOperationService pendingOperations) {
         this.utilisateurRepository = utilisateurRepository;
         this.userRoleRepository = userRoleRepository;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.auditJournal = auditJournal;
+        this.shardRouter = shardRouter;
+        this.replicator = replicator;
+        this.pendingOperations = pendingOperations;
     }
 
-    // Retrieve all users
+    // Retrieve all users (excluding pending deletions)
+    @Transactional(readOnly = true)
     public List<UtilisateurDTO> getAllUtilisateurs() {
         return utilisateurRepository.findAll()
                 .stream()
+                .filter(this::isVisible)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     // Retrieve a user by ID
+    @Transactional(readOnly = true)
     public Utilisateur getUtilisateurById(int id) {
         return utilisateurRepository.findById(id)
+                .filter(this::isVisible)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec l'ID : " + id));
     }
 
-    // Create a user with role handling
+    // Create a user with role handling on shard 0, copied with the same ids to the other shards
+    @Transactional
     public UtilisateurDTO createUtilisateur(UtilisateurDTO utilisateurDTO) {
         // Validate email
         validateEmail(utilisateurDTO.getEmail());
+        return shardRouter.onShard(0, () -> creerUtilisateur(utilisateurDTO));
+    }
 
+    private UtilisateurDTO creerUtilisateur(UtilisateurDTO utilisateurDTO) {
         // Create the Utilisateur entity
         Utilisateur utilisateur = new Utilisateur();
         utilisateur.setNom(utilisateurDTO.getNom());
@@ -50,6 +79,7 @@ public class UtilisateurService {
 
         // Save the user
         Utilisateur savedUtilisateur = utilisateurRepository.save(utilisateur);
+        replicator.synchroniser(Utilisateur.class, savedUtilisateur.getId());
 
         // Handle roles
         if (utilisateurDTO.getRoles() != null && !utilisateurDTO.getRoles().isEmpty()) {
@@ -67,7 +97,9 @@ public class UtilisateurService {
                 userRole.setUtilisateur(savedUtilisateur);
 
                 // Save the role in the database
-                userRoleRepository.save(userRole);
+                UserRole savedRole = userRoleRepository.save(userRole);
+                replicator.synchroniser(UserRole.class, savedRole.getId());
+                auditJournal.record(AuditEntityType.USER_ROLE, savedRole.getId(), null, role);
             }
         }
 
@@ -75,40 +107,67 @@ public class UtilisateurService {
         return convertToDTO(savedUtilisateur);
     }
 
-    // Update a user
+    // Update a user on shard 0 and its copies
+    @Transactional
     public UtilisateurDTO updateUtilisateur(int id, Utilisateur utilisateurDetails) {
-        Utilisateur utilisateur = utilisateurRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur not found with id " + id));
         validateEmail(utilisateurDetails.getEmail());
-        utilisateur.setNom(utilisateurDetails.getNom());
-        utilisateur.setPrenom(utilisateurDetails.getPrenom());
-        utilisateur.setEmail(utilisateurDetails.getEmail());
-        Utilisateur updatedUtilisateur = utilisateurRepository.save(utilisateur);
+        // A user being deleted can no longer be modified
+        pendingOperations.verifierModifiable(Cible.UTILISATEUR, id);
+        Utilisateur updatedUtilisateur = shardRouter.onShard(0, () -> {
+            Utilisateur utilisateur = utilisateurRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Utilisateur not found with id " + id));
+            utilisateur.setNom(utilisateurDetails.getNom());
+            utilisateur.setPrenom(utilisateurDetails.getPrenom());
+            utilisateur.setEmail(utilisateurDetails.getEmail());
+            Utilisateur saved = utilisateurRepository.save(utilisateur);
+            replicator.synchroniser(Utilisateur.class, id);
+            return saved;
+        });
         return convertToDTO(updatedUtilisateur);
     }
 
-    // Delete a user
-    public void deleteUtilisateur(int id) {
-        Utilisateur utilisateur = utilisateurRepository.findById(id)
+    // Delete a user: hidden immediately, dependents purged in the background
+    public DeletionProgress deleteUtilisateur(int id) {
+        utilisateurRepository.findById(id)
+                .filter(this::isVisible)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur not found with id " + id));
-        utilisateurRepository.delete(utilisateur);
+        return cascadeDeleteService.scheduleUtilisateurDeletion(id);
     }
 
     // Retrieve a user by email
+    @Transactional(readOnly = true)
     public UtilisateurDTO getUtilisateurByEmail(String email) {
         Utilisateur utilisateur = utilisateurRepository.findByEmail(email)
+                .filter(this::isVisible)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur not found with email " + email));
         return convertToDTO(utilisateur);
     }
 
-    // Retrieve users by role
+    // Retrieve users by role: global roles from shard 0, conference roles from every shard
+    @Transactional(readOnly = true)
     public List<UtilisateurDTO> getUtilisateursByRole(Role role) {
-        List<UserRole> userRoles = userRoleRepository.findByRole(role);
+        List<UserRole> userRoles = shardRouter.getPartitions() == 1
+                ? userRoleRepository.findByRole(role)
+                : rolesSurToutesLesPartitions(() -> userRoleRepository.findByRoleAndConferenceIsNull(role),
+                        () -> userRoleRepository.findByRoleAndConferenceIsNotNullWithAssociations(role));
         return userRoles.stream()
-                .map(userRole -> convertToDTO(userRole.getUtilisateur()))
+                .map(UserRole::getUtilisateur)
+                .filter(this::isVisible)
+                .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    private List<UserRole> rolesSurToutesLesPartitions(Supplier<List<UserRole>> globaux, Supplier<List<UserRole>> parConference) {
+        List<UserRole> roles = new ArrayList<>(shardRouter.onShard(0, globaux));
+        roles.addAll(shardRouter.fanOut(parConference));
+        return roles;
+    }
+
+    // A user scheduled for deletion is no longer visible
+    private boolean isVisible(Utilisateur utilisateur) {
+        return !cascadeDeleteService.isUtilisateurDeleted(utilisateur.getId());
+    }
+
     // Validate the email format
     private void validateEmail(String email) {
         if (email == null || !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
@@ -123,8 +182,12 @@ public class UtilisateurService {
         dto.setPrenom(utilisateur.getPrenom());
         dto.setEmail(utilisateur.getEmail());
 
-        // Get roles of the user as strings
-        List<String> roles = utilisateur.getUserRoles().stream()
+        // Get roles of the user as strings (conference roles live on their conference's shard)
+        List<UserRole> userRoles = shardRouter.getPartitions() == 1
+                ? utilisateur.getUserRoles()
+                : rolesSurToutesLesPartitions(() -> userRoleRepository.findByUtilisateurIdAndConferenceIsNull(utilisateur.getId()),
+                        () -> userRoleRepository.findByUtilisateurIdAndConferenceIsNotNull(utilisateur.getId()));
+        List<String> roles = userRoles.stream()
                 .map(userRole -> userRole.getRole().name())
                 .collect(Collectors.toList());
         dto.setRoles(roles);
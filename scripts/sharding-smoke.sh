@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Vérification de bout en bout du partitionnement sur deux bases H2 (fichiers temporaires) :
+# jeu de données « seed » réduit, redémarrage sur les schémas existants, puis contrôle des partitions
+# (données de référence identiques, identifiants entrelacés, dépendances sur la partition de leur conférence).
+# Prérequis : ./mvnw package -DskipTests
+# Usage : scripts/sharding-smoke.sh [port]
+set -euo pipefail
+
+PORT=${1:-18081}
+JAR=$(ls target/gestion-conferences-*.jar | grep -v original | head -n 1)
+H2=$(find "${HOME}/.m2/repository/com/h2database/h2" -name 'h2-*.jar' | sort | tail -n 1)
+DIR=$(mktemp -d)
+trap 'rm -rf "$DIR"' EXIT
+
+URL0="jdbc:h2:file:$DIR/shard0"
+URL1="jdbc:h2:file:$DIR/shard1"
+
+demarrer() {
+    local journal=$1 attente=$2 pid
+    shift 2
+    java -jar "$JAR" --server.port="$PORT" --app.audit.enabled=false \
+        --spring.jpa.hibernate.ddl-auto=update \
+        --app.sharding.enabled=true \
+        --app.sharding.shards[0].url="$URL0" --app.sharding.shards[0].username=sa --app.sharding.shards[0].password= \
+        --app.sharding.shards[1].url="$URL1" --app.sharding.shards[1].username=sa --app.sharding.shards[1].password= \
+        "$@" > "$journal" 2>&1 &
+    pid=$!
+    until grep -q "$attente" "$journal"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "L'application s'est arrêtée avant la fin du démarrage :" >&2
+            tail -n 40 "$journal" >&2
+            exit 1
+        fi
+        sleep 0.2
+    done
+    # Toute réponse HTTP (y compris 401) signifie que l'application sert des requêtes
+    if [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/api/conferences")" = "000" ]; then
+        echo "Aucune réponse HTTP" >&2
+        exit 1
+    fi
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+# Résultat d'une requête sans l'en-tête ni le décompte final
+requete() {
+    java -cp "$H2" org.h2.tools.Shell -url "$1" -user sa -password "" -sql "$2" | sed '1d;$d'
+}
+
+verifier() {
+    local libelle=$1 obtenu=$2 attendu=$3
+    if [ "$obtenu" != "$attendu" ]; then
+        echo "ÉCHEC $libelle : obtenu '$obtenu', attendu '$attendu'" >&2
+        exit 1
+    fi
+    echo "ok   $libelle"
+}
+
+demarrer "$DIR/seed.log" "Jeu de données généré" --spring.profiles.active=seed \
+    --app.seed.users=300 --app.seed.conferences=20 --app.seed.submissions=400 \
+    --app.seed.evaluations=1000 --app.seed.batch-size=64
+# Second démarrage : les schémas existent, aucune erreur DDL ne doit interrompre l'initialisation
+demarrer "$DIR/restart.log" "Started"
+
+for requete_reference in \
+    "SELECT id, nom, prenom, email FROM utilisateur ORDER BY id" \
+    "SELECT id, utilisateur_id, role FROM user_role WHERE conference_id IS NULL ORDER BY id"; do
+    verifier "copie identique : $requete_reference" \
+        "$(requete "$URL1" "$requete_reference" | md5sum)" "$(requete "$URL0" "$requete_reference" | md5sum)"
+done
+
+for p in 0 1; do
+    url="URL$p"
+    verifier "conférences présentes sur la partition $p" \
+        "$(requete "${!url}" "SELECT COUNT(*) > 0 FROM conference")" "TRUE"
+    for table in conference soumission evaluation; do
+        verifier "$table : identifiants de la partition $p" \
+            "$(requete "${!url}" "SELECT COUNT(*) FROM $table WHERE MOD(id, 2) <> $p")" "0"
+    done
+    verifier "rôles de conférence : identifiants de la partition $p" \
+        "$(requete "${!url}" "SELECT COUNT(*) FROM user_role WHERE conference_id IS NOT NULL AND MOD(id, 2) <> $p")" "0"
+    verifier "rôles globaux : identifiants de la partition 0 (copie $p)" \
+        "$(requete "${!url}" "SELECT COUNT(*) FROM user_role WHERE conference_id IS NULL AND MOD(id, 2) <> 0")" "0"
+done
+
+echo "Partitionnement vérifié"
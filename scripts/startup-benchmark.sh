@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Mesure le temps jusqu'à la première requête servie, en mode standard puis en mode démarrage rapide.
+# Prérequis : ./mvnw -Pfast-startup package -DskipTests
+# Usage : scripts/startup-benchmark.sh [itérations] [port]
+set -euo pipefail
+
+ITERATIONS=${1:-5}
+PORT=${2:-18080}
+JAR=$(ls target/gestion-conferences-*.jar | grep -v original | head -n 1)
+FAST_DIR=target/fast-startup
+FAST_JAR="$FAST_DIR/$(basename "$JAR")"
+
+mesurer() {
+    local debut fin pid
+    debut=$(date +%s%N)
+    "$@" --server.port="$PORT" --app.audit.enabled=false > /dev/null 2>&1 &
+    pid=$!
+    # Toute réponse HTTP (y compris 401) signifie que la première requête a été servie
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/api/conferences")" != "000" ]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "L'application s'est arrêtée avant de répondre" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    fin=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo $(( (fin - debut) / 1000000 ))
+}
+
+campagne() {
+    local libelle=$1 total=0 duree
+    shift
+    for ((i = 1; i <= ITERATIONS; i++)); do
+        duree=$(mesurer "$@")
+        total=$((total + duree))
+        echo "$libelle #$i : ${duree} ms"
+    done
+    echo "$libelle moyenne : $((total / ITERATIONS)) ms"
+}
+
+campagne "standard" java -jar "$JAR"
+campagne "démarrage rapide" java -XX:SharedArchiveFile="$FAST_DIR/application.jsa" -Dspring.aot.enabled=true -jar "$FAST_JAR"